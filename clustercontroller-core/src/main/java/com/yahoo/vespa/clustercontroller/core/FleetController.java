@@ -33,7 +33,9 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -91,6 +93,8 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
     private boolean isStateGatherer = false;
     private long firstAllowedStateBroadcast = Long.MAX_VALUE;
     private long tickStartTime = Long.MAX_VALUE;
+    // Time each node went from reported up to down or stopping, until a cluster state version with this change is published
+    private final Map<Node, Long> nodeFailureTimes = new HashMap<>();
 
     private final List<RemoteClusterControllerTask> tasksPendingStateRecompute = new ArrayList<>();
     // Invariant: queued task versions are monotonically increasing with queue position
@@ -165,6 +169,8 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
         propagateOptions();
     }
 
+    private static final int replyParserThreads = 2;
+
     public static FleetController create(FleetControllerOptions options,
                                          StatusPageServerInterface statusPageServer,
                                          MetricReporter metricReporter) throws Exception {
@@ -177,7 +183,7 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
                 options.storageDistribution,
                 options.minStorageNodesUp,
                 options.minRatioOfStorageNodesUp);
-        NodeStateGatherer stateGatherer = new NodeStateGatherer(timer, timer, log);
+        NodeStateGatherer stateGatherer = new NodeStateGatherer(timer, timer, log, replyParserThreads);
         Communicator communicator = new RPCCommunicator(
                 RPCCommunicator.createRealSupervisor(),
                 timer,
@@ -299,6 +305,7 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
         }
         communicator.shutdown();
         nodeLookup.shutdown();
+        stateGatherer.shutdown();
     }
 
     public void updateOptions(FleetControllerOptions options, long configGeneration) {
@@ -324,6 +331,10 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
     @Override
     public void handleNewNodeState(NodeInfo node, NodeState newState) {
         verifyInControllerThread();
+        if (node.getReportedState().getState() == State.UP && newState.getState().oneOf("ds"))
+            nodeFailureTimes.putIfAbsent(node.getNode(), timer.getCurrentTimeInMillis());
+        else if (newState.getState() == State.UP)
+            nodeFailureTimes.remove(node.getNode());
         stateChangeHandler.handleNewReportedNodeState(latestCandidateClusterState(), node, newState, this);
     }
 
@@ -384,6 +395,7 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
         ClusterState baselineState = stateBundle.getBaselineClusterState();
         newStates.add(stateBundle);
         metricUpdater.updateClusterStateMetrics(cluster, baselineState);
+        updateNodeFailureMetrics(baselineState);
         lastMetricUpdateCycleCount = cycleCount;
         systemStateBroadcaster.handleNewClusterStates(stateBundle);
         // Iff master, always store new version in ZooKeeper _before_ publishing to any
@@ -394,6 +406,18 @@ public class FleetController implements NodeStateOrHostInfoChangeHandler, NodeAd
         }
     }
 
+    /** Reports the failure time of the nodes which are no longer up in the given published state */
+    private void updateNodeFailureMetrics(ClusterState publishedState) {
+        long currentTime = timer.getCurrentTimeInMillis();
+        for (Iterator<Map.Entry<Node, Long>> i = nodeFailureTimes.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<Node, Long> failure = i.next();
+            if (publishedState.getNodeState(failure.getKey()).getState() == State.UP) continue;
+
+            metricUpdater.setNodeFailureToNewStateTime(currentTime - failure.getValue());
+            i.remove();
+        }
+    }
+
     private boolean maybePublishOldMetrics() {
         verifyInControllerThread();
         if (cycleCount > 300 + lastMetricUpdateCycleCount) {
@@ -87,6 +87,11 @@ public class MetricUpdater {
         }
     }
 
+    /** Sets the time from a node was reported down or stopping until a cluster state version with this change was published */
+    public void setNodeFailureToNewStateTime(long millis) {
+        metricReporter.set("node-failure-to-new-state-time-ms", millis);
+    }
+
     public void recordNewNodeEvent() {
         // TODO(hakonhall): Replace add() with a persistent aggregate metric.
         metricReporter.add("node-event", 1);
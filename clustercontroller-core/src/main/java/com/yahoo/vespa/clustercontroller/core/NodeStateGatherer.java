@@ -1,6 +1,7 @@
 // Copyright 2017 Yahoo Holdings. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.clustercontroller.core;
 
+import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.jrt.ErrorCode;
 import com.yahoo.jrt.Target;
 import java.util.logging.Level;
@@ -11,10 +12,15 @@ import com.yahoo.vespa.clustercontroller.core.listeners.NodeStateOrHostInfoChang
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Logger;
 
 /**
  * Collects the state of all nodes by making remote requests and handling the replies.
+ * The node states and host infos of replies may be parsed by a pool of threads, so that
+ * the controller thread only needs to act on the parsed replies.
  */
 public class NodeStateGatherer {
 
@@ -22,11 +28,24 @@ public class NodeStateGatherer {
 
     private final Object monitor;
     private final Timer timer;
-    private final List<GetNodeStateRequest> replies = new LinkedList<>();
+    private final List<ParsedReply> replies = new LinkedList<>();
+    private final ExecutorService replyParser; // null to parse replies in the thread delivering them
 
     private class NodeStateWaiter implements Communicator.Waiter<GetNodeStateRequest> {
         @Override
         public void done(GetNodeStateRequest reply) {
+            if (replyParser == null) {
+                add(new ParsedReply(reply));
+                return;
+            }
+            try {
+                replyParser.execute(() -> add(new ParsedReply(reply)));
+            } catch (RejectedExecutionException e) {
+                log.log(Level.FINE, "Ignoring getnodestate response from " + reply.getNodeInfo().getNode() + " after shutdown");
+            }
+        }
+
+        private void add(ParsedReply reply) {
             synchronized (monitor) {
                 replies.add(reply);
                 monitor.notifyAll();
@@ -34,6 +53,34 @@ public class NodeStateGatherer {
         }
     }
 
+    /** A reply with its node state and host info parsed */
+    private static class ParsedReply {
+
+        final GetNodeStateRequest request;
+        NodeState state = null;
+        Exception stateParseFailure = null;
+        HostInfo hostInfo = null;
+        RuntimeException hostInfoParseFailure = null;
+
+        ParsedReply(GetNodeStateRequest request) {
+            this.request = request;
+            GetNodeStateRequest.Reply reply = request.getReply();
+            if (reply.isError()) return;
+
+            try {
+                state = NodeState.deserialize(request.getNodeInfo().getNode().getType(), reply.getStateString());
+            } catch (Exception e) {
+                stateParseFailure = e;
+            }
+            try {
+                hostInfo = HostInfo.createHostInfo(reply.getHostInfo());
+            } catch (RuntimeException e) {
+                hostInfoParseFailure = e;
+            }
+        }
+
+    }
+
     private final NodeStateWaiter waiter = new NodeStateWaiter();
 
     private final EventLog eventLog;
@@ -41,9 +88,24 @@ public class NodeStateGatherer {
     private long nodeStateRequestTimeoutMS = 10 * 1000;
 
     public NodeStateGatherer(Object monitor, Timer timer, EventLog log) {
+        this(monitor, timer, log, 0);
+    }
+
+    /**
+     * @param replyParserThreads the number of threads parsing replies,
+     *                           or 0 to parse replies in the thread delivering them
+     */
+    public NodeStateGatherer(Object monitor, Timer timer, EventLog log, int replyParserThreads) {
         this.monitor = monitor;
         this.timer = timer;
         this.eventLog = log;
+        this.replyParser = replyParserThreads > 0
+                ? Executors.newFixedThreadPool(replyParserThreads, new DaemonThreadFactory("node-state-reply-parser-"))
+                : null;
+    }
+
+    public void shutdown() {
+        if (replyParser != null) replyParser.shutdownNow();
     }
 
     public void setMaxSlobrokDisconnectGracePeriod(int millisecs) { maxSlobrokDisconnectGracePeriod = millisecs; }
@@ -97,8 +159,9 @@ public class NodeStateGatherer {
         boolean processedAnyResponses = false;
         long currentTime = timer.getCurrentTimeInMillis();
         synchronized(monitor) {
-            for(GetNodeStateRequest req : replies) {
+            for(ParsedReply parsed : replies) {
                 processedAnyResponses = true;
+                GetNodeStateRequest req = parsed.request;
                 NodeInfo info = req.getNodeInfo();
 
                 if (!info.isPendingGetNodeStateRequest(req)) {
@@ -128,7 +191,8 @@ public class NodeStateGatherer {
                 }
 
                 try {
-                    NodeState state = NodeState.deserialize(info.getNode().getType(), reply.getStateString());
+                    if (parsed.state == null) throw parsed.stateParseFailure;
+                    NodeState state = parsed.state;
 
                     // For version 0 responses, we poll, so we likely have not altered the state
                     if ( ! state.equals(info.getReportedState()))
@@ -141,7 +205,11 @@ public class NodeStateGatherer {
 
                 // Important: The old host info should be accessible in info.getHostInfo(), see interface.
                 // Therefore, setHostInfo() must be called AFTER handleUpdatedHostInfo().
-                HostInfo hostInfo = HostInfo.createHostInfo(reply.getHostInfo());
+                if (parsed.hostInfo == null) {
+                    log.log(Level.WARNING, "Failed to parse host info from " + info.getNode() + ", keeping the previous", parsed.hostInfoParseFailure);
+                    continue;
+                }
+                HostInfo hostInfo = parsed.hostInfo;
                 listener.handleUpdatedHostInfo(info, hostInfo);
                 info.setHostInfo(hostInfo);
 
@@ -268,10 +268,13 @@ public class SystemStateBroadcaster {
         }
 
         List<NodeInfo> recipients = resolveStateVersionSendSet(dbContext);
+        ClusterStateBundle bundleWithStartTimestamps = null; // Same for all nodes, so computed at most once
         for (NodeInfo node : recipients) {
             if (nodeNeedsToObserveStartupTimestamps(node)) {
-                // TODO this is the same for all nodes, compute only once
-                ClusterStateBundle modifiedBundle = clusterStateBundle.cloneWithMapper(state -> buildModifiedClusterState(state, dbContext));
+                if (bundleWithStartTimestamps == null) {
+                    bundleWithStartTimestamps = clusterStateBundle.cloneWithMapper(state -> buildModifiedClusterState(state, dbContext));
+                }
+                ClusterStateBundle modifiedBundle = bundleWithStartTimestamps;
                 log.log(Level.FINE, () -> String.format("Sending modified cluster state version %d" +
                         " to node %s: %s", baselineState.getVersion(), node, modifiedBundle));
                 communicator.setSystemState(modifiedBundle, node, setClusterStateWaiter);
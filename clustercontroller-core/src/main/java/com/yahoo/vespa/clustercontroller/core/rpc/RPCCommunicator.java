@@ -24,6 +24,8 @@ import com.yahoo.vespa.clustercontroller.core.NodeInfo;
 import com.yahoo.vespa.clustercontroller.core.SetClusterStateRequest;
 import com.yahoo.vespa.clustercontroller.core.Timer;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -45,6 +47,8 @@ public class RPCCommunicator implements Communicator {
     public static final int LEGACY_SET_SYSTEM_STATE2_RPC_VERSION = 2;
     public static final String LEGACY_SET_SYSTEM_STATE2_RPC_METHOD_NAME = "setsystemstate2";
 
+    private static final int maxEncodedBundles = 8;
+
     private final Timer timer;
     private final Supervisor supervisor;
     private double nodeStateRequestTimeoutIntervalMaxSeconds;
@@ -52,6 +56,10 @@ public class RPCCommunicator implements Communicator {
     private int nodeStateRequestTimeoutIntervalStopPercentage;
     private int nodeStateRequestRoundTripTimeMaxSeconds;
     private final int fleetControllerIndex;
+    private final SlimeClusterStateBundleCodec codec = new SlimeClusterStateBundleCodec();
+    // Encodings of the bundles of the most recently sent state version, shared by all nodes the bundle is sent to
+    private final Map<ClusterStateBundle, EncodedClusterStateBundle> encodedBundles = new IdentityHashMap<>();
+    private int encodedBundlesVersion = -1;
 
     public static Supervisor createRealSupervisor() {
         return new Supervisor(new Transport("rpc-communicator"));
@@ -148,8 +156,7 @@ public class RPCCommunicator implements Communicator {
             req.parameters().add(new StringValue(baselineState.toString(false)));
         } else {
             req = new Request(SET_DISTRIBUTION_STATES_RPC_METHOD_NAME);
-            SlimeClusterStateBundleCodec codec = new SlimeClusterStateBundleCodec();
-            EncodedClusterStateBundle encodedBundle = codec.encode(stateBundle);
+            EncodedClusterStateBundle encodedBundle = encode(stateBundle);
             Values v = req.parameters();
             v.add(new Int8Value(encodedBundle.getCompression().type().getCode()));
             v.add(new Int32Value(encodedBundle.getCompression().uncompressedSize()));
@@ -165,6 +172,15 @@ public class RPCCommunicator implements Communicator {
         node.setClusterStateVersionBundleSent(stateBundle);
     }
 
+    private EncodedClusterStateBundle encode(ClusterStateBundle stateBundle) {
+        // A few bundle instances may be sent for the same version, e.g. with node start timestamps added
+        if (stateBundle.getVersion() != encodedBundlesVersion || encodedBundles.size() >= maxEncodedBundles) {
+            encodedBundles.clear();
+            encodedBundlesVersion = stateBundle.getVersion();
+        }
+        return encodedBundles.computeIfAbsent(stateBundle, codec::encode);
+    }
+
     @Override
     public void activateClusterStateVersion(int clusterStateVersion, NodeInfo node, Waiter<ActivateClusterStateVersionRequest> externalWaiter) {
         var waiter = new RPCActivateClusterStateVersionWaiter(externalWaiter);
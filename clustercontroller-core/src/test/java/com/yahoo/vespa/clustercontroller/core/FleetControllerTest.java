@@ -160,7 +160,7 @@ public abstract class FleetControllerTest implements Waiter {
                 options.storageDistribution,
                 options.minStorageNodesUp,
                 options.minRatioOfStorageNodesUp);
-        NodeStateGatherer stateGatherer = new NodeStateGatherer(timer, timer, log);
+        NodeStateGatherer stateGatherer = new NodeStateGatherer(timer, timer, log, 2);
         Communicator communicator = new RPCCommunicator(
                 RPCCommunicator.createRealSupervisor(),
                 timer,
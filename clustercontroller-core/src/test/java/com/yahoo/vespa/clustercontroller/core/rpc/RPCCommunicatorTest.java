@@ -28,6 +28,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
@@ -156,6 +157,21 @@ public class RPCCommunicatorTest {
         assertThat(receivedBundle, equalTo(sentBundle));
     }
 
+    @Test
+    public void setSystemState_encodes_bundle_once_for_all_nodes() {
+        var f = new Fixture<SetClusterStateRequest>();
+        var cf = ClusterFixture.forFlatCluster(3).bringEntireClusterUp().assignDummyRpcAddresses();
+        var sentBundle = ClusterStateBundleUtil.makeBundle("version:2 distributor:3 storage:3");
+        f.communicator.setSystemState(sentBundle, cf.cluster().getNodeInfo(Node.ofStorage(1)), f.mockWaiter);
+        byte[] firstPayload = f.receivedRequest.get().parameters().get(2).asData();
+        f.communicator.setSystemState(sentBundle, cf.cluster().getNodeInfo(Node.ofStorage(2)), f.mockWaiter);
+        assertSame(firstPayload, f.receivedRequest.get().parameters().get(2).asData());
+
+        var nextBundle = ClusterStateBundleUtil.makeBundle("version:3 distributor:3 storage:3 .0.s:d");
+        f.communicator.setSystemState(nextBundle, cf.cluster().getNodeInfo(Node.ofStorage(1)), f.mockWaiter);
+        assertThat(RPCUtil.decodeStateBundleFromSetDistributionStatesRequest(f.receivedRequest.get()), equalTo(nextBundle));
+    }
+
     @Test
     public void set_distribution_states_v3_rpc_auto_downgrades_to_v2_on_unknown_method_error() {
         var f = new Fixture<SetClusterStateRequest>();
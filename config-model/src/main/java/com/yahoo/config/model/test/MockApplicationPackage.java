@@ -33,7 +33,6 @@ import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -146,12 +145,12 @@ public class MockApplicationPackage implements ApplicationPackage {
 
     @Override
     public ApplicationFile getFile(Path file) {
-        return new MockApplicationFile(file, Path.fromString(root.toString()));
+        return new MockApplicationFile(file, root);
     }
 
     @Override
     public File getFileReference(Path path) {
-        return Path.fromString(root.toString()).append(path).toFile();
+        return new File(root, path.getRelative());
     }
 
     @Override
@@ -335,16 +334,16 @@ public class MockApplicationPackage implements ApplicationPackage {
 
     public static class MockApplicationFile extends ApplicationFile {
 
-        /** The path to the application package root */
-        private final Path root;
+        /** The application package root */
+        private final File root;
 
         /** The File pointing to the actual file represented by this */
         private final File file;
 
-        public MockApplicationFile(Path filePath, Path applicationPackagePath) {
+        public MockApplicationFile(Path filePath, File applicationPackage) {
             super(filePath);
-            this.root = applicationPackagePath;
-            file = applicationPackagePath.append(filePath).toFile();
+            this.root = applicationPackage;
+            file = new File(applicationPackage, filePath.getRelative());
         }
 
         @Override
@@ -433,20 +432,7 @@ public class MockApplicationPackage implements ApplicationPackage {
 
         /** Strips the application package root path prefix from the path of the given file */
         private Path asApplicationRelativePath(File file) {
-            Path path = Path.fromString(file.toString());
-
-            Iterator<String> pathIterator = path.iterator();
-            // Skip the path elements this shares with the root
-            for (Iterator<String> rootIterator = root.iterator(); rootIterator.hasNext(); ) {
-                String rootElement = rootIterator.next();
-                String pathElement = pathIterator.next();
-                if ( ! rootElement.equals(pathElement)) throw new RuntimeException("Assumption broken");
-            }
-            // Build a path from the remaining
-            Path relative = Path.fromString("");
-            while (pathIterator.hasNext())
-                relative = relative.append(pathIterator.next());
-            return relative;
+            return Path.fromString(root.toPath().relativize(file.toPath()).toString());
         }
 
     }
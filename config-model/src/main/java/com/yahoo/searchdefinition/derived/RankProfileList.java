@@ -2,6 +2,7 @@
 package com.yahoo.searchdefinition.derived;
 
 import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlModels;
+import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.config.model.api.ModelContext;
 import com.yahoo.search.query.profile.QueryProfileRegistry;
 import com.yahoo.searchdefinition.OnnxModel;
@@ -9,6 +10,9 @@ import com.yahoo.searchdefinition.OnnxModels;
 import com.yahoo.searchdefinition.RankProfileRegistry;
 import com.yahoo.searchdefinition.RankingConstant;
 import com.yahoo.searchdefinition.RankingConstants;
+import com.yahoo.searchlib.rankingexpression.rule.CompositeNode;
+import com.yahoo.searchlib.rankingexpression.rule.ExpressionNode;
+import com.yahoo.searchlib.rankingexpression.rule.ReferenceNode;
 import com.yahoo.vespa.config.search.RankProfilesConfig;
 import com.yahoo.searchdefinition.RankProfile;
 import com.yahoo.searchdefinition.Search;
@@ -16,9 +20,18 @@ import com.yahoo.vespa.config.search.core.OnnxModelsConfig;
 import com.yahoo.vespa.config.search.core.RankingConstantsConfig;
 import com.yahoo.vespa.model.AbstractService;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * The derived rank profiles of a search definition
@@ -31,6 +44,9 @@ public class RankProfileList extends Derived implements RankProfilesConfig.Produ
 
     private static final Logger log = Logger.getLogger(RankProfileList.class.getName());
 
+    /** The features which cause a model to be converted when a profile is derived */
+    private static final Set<String> modelFeatures = Set.of("onnx", "onnxModel", "onnx_vespa", "tensorflow", "xgboost", "lightgbm");
+
     private final Map<String, RawRankProfile> rankProfiles = new java.util.LinkedHashMap<>();
     private final RankingConstants rankingConstants;
     private final OnnxModels onnxModels;
@@ -67,17 +83,76 @@ public class RankProfileList extends Derived implements RankProfilesConfig.Produ
                                     Search search,
                                     AttributeFields attributeFields,
                                     ModelContext.Properties deployProperties) {
-        if (search != null) { // profiles belonging to a search have a default profile
-            RawRankProfile defaultProfile = new RawRankProfile(rankProfileRegistry.get(search, "default"),
-                                                               queryProfiles, importedModels, attributeFields, deployProperties);
-            rankProfiles.put(defaultProfile.getName(), defaultProfile);
-        }
-
+        List<RankProfile> profiles = new ArrayList<>();
+        if (search != null) // profiles belonging to a search have a default profile
+            profiles.add(rankProfileRegistry.get(search, "default"));
         for (RankProfile rank : rankProfileRegistry.rankProfilesOf(search)) {
             if (search != null && "default".equals(rank.getName())) continue;
+            profiles.add(rank);
+        }
 
-            RawRankProfile rawRank = new RawRankProfile(rank, queryProfiles, importedModels, attributeFields, deployProperties);
+        // Deriving a profile may convert models, which adds constants to the ranking constants of the schema
+        // that the next profile reads, and updates the input mappings of the shared ONNX models
+        boolean parallel = importedModels.all().isEmpty()
+                           && (search == null || search.onnxModels().asMap().isEmpty())
+                           && profiles.stream().noneMatch(RankProfileList::usesModels);
+        for (RawRankProfile rawRank : derive(profiles,
+                                             rank -> new RawRankProfile(rank, queryProfiles, importedModels, attributeFields, deployProperties),
+                                             parallel))
             rankProfiles.put(rawRank.getName(), rawRank);
+    }
+
+    /** Returns whether the given profile references a machine learned model which is converted when it is derived */
+    private static boolean usesModels(RankProfile profile) {
+        List<ExpressionNode> nodes = new ArrayList<>();
+        if (profile.getFirstPhaseRanking() != null)
+            nodes.add(profile.getFirstPhaseRanking().getRoot());
+        if (profile.getSecondPhaseRanking() != null)
+            nodes.add(profile.getSecondPhaseRanking().getRoot());
+        for (RankProfile.RankingExpressionFunction function : profile.getFunctions().values())
+            nodes.add(function.function().getBody().getRoot());
+        nodes.addAll(profile.getSummaryFeatures());
+        nodes.addAll(profile.getRankFeatures());
+        return nodes.stream().anyMatch(RankProfileList::usesModels);
+    }
+
+    private static boolean usesModels(ExpressionNode node) {
+        if (node instanceof ReferenceNode && modelFeatures.contains(((ReferenceNode)node).getName())) return true;
+        if (node instanceof CompositeNode)
+            return ((CompositeNode)node).children().stream().anyMatch(RankProfileList::usesModels);
+        return false;
+    }
+
+    /** Derives the given profiles, in parallel if requested, and returns them in the order given */
+    private static List<RawRankProfile> derive(List<RankProfile> profiles,
+                                               Function<RankProfile, RawRankProfile> deriver,
+                                               boolean parallel) {
+        if ( ! parallel || profiles.size() <= 1) return profiles.stream().map(deriver).collect(Collectors.toList());
+
+        // Owned by this derivation, such that no threads outlive it and keep this model version's classes loaded
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(profiles.size(), Runtime.getRuntime().availableProcessors()),
+                                                                new DaemonThreadFactory("rank-profile-deriver-"));
+        try {
+            List<Future<RawRankProfile>> derived = new ArrayList<>();
+            for (RankProfile profile : profiles)
+                derived.add(executor.submit(() -> deriver.apply(profile)));
+
+            List<RawRankProfile> rawProfiles = new ArrayList<>();
+            for (Future<RawRankProfile> rawProfile : derived)
+                rawProfiles.add(rawProfile.get());
+            return rawProfiles;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deriving rank profiles", e);
+        }
+        finally {
+            executor.shutdownNow();
         }
     }
 
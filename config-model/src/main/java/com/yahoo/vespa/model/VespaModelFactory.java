@@ -23,6 +23,7 @@ import com.yahoo.config.provision.TransientException;
 import com.yahoo.config.provision.Zone;
 import com.yahoo.vespa.config.VespaVersion;
 import com.yahoo.vespa.model.application.validation.Validation;
+import com.yahoo.vespa.model.ml.CachingMlModelImporter;
 import org.xml.sax.SAXException;
 
 import java.io.IOException;
@@ -60,7 +61,7 @@ public class VespaModelFactory implements ModelFactory {
             }
         }
         this.configModelRegistry = new MapConfigModelRegistry(modelBuilders);
-        this.modelImporters = modelImporters.allComponents();
+        this.modelImporters = CachingMlModelImporter.wrap(modelImporters.allComponents());
         this.zone = zone;
 
         this.clock = Clock.systemUTC();
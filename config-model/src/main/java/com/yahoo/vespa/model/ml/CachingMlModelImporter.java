@@ -0,0 +1,140 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.model.ml;
+
+import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlFunction;
+import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlModel;
+import ai.vespa.rankingexpression.importer.configmodelview.MlModelImporter;
+import com.yahoo.io.HexDump;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * An importer which reuses models imported earlier from files with the same content, typically
+ * by a previous deployment of the same application, instead of importing them again.
+ * Imported models are read-only, so they can be shared between deployments.
+ * At most a given number of models are kept, and these are released if memory is needed.
+ */
+public class CachingMlModelImporter implements MlModelImporter {
+
+    private static final int defaultMaxModels = 100;
+
+    private final MlModelImporter importer;
+    private final Map<String, SoftReference<ImportedMlModel>> models;
+
+    public CachingMlModelImporter(MlModelImporter importer) {
+        this(importer, defaultMaxModels);
+    }
+
+    public CachingMlModelImporter(MlModelImporter importer, int maxModels) {
+        this.importer = importer;
+        this.models = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SoftReference<ImportedMlModel>> eldest) {
+                return size() > maxModels;
+            }
+        };
+    }
+
+    /** Returns the given importers, each wrapped in a caching importer */
+    public static List<MlModelImporter> wrap(Collection<MlModelImporter> importers) {
+        return importers.stream().map(CachingMlModelImporter::new).collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean canImport(String modelPath) {
+        return importer.canImport(modelPath);
+    }
+
+    @Override
+    public ImportedMlModel importModel(String modelName, File modelPath) {
+        String key = modelName + "@" + contentHash(modelPath);
+        ImportedMlModel model = cached(key);
+        if (model == null) {
+            model = importer.importModel(modelName, modelPath);
+            synchronized (models) {
+                models.put(key, new SoftReference<>(model));
+            }
+        }
+        return new SourcedModel(model, modelPath.toString());
+    }
+
+    private ImportedMlModel cached(String key) {
+        synchronized (models) {
+            SoftReference<ImportedMlModel> model = models.get(key);
+            return model == null ? null : model.get();
+        }
+    }
+
+    /** Returns a hash of the names and content of all the files of this model */
+    private static String contentHash(File modelPath) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            addToDigest(modelPath, digest);
+            return HexDump.toHexString(digest.digest());
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read model " + modelPath, e);
+        }
+    }
+
+    private static void addToDigest(File path, MessageDigest digest) throws IOException {
+        digest.update(path.getName().getBytes(StandardCharsets.UTF_8));
+        if (path.isFile()) {
+            try (InputStream in = Files.newInputStream(path.toPath())) {
+                byte[] buffer = new byte[65536];
+                for (int read; (read = in.read(buffer)) != -1; )
+                    digest.update(buffer, 0, read);
+            }
+        }
+        else if (path.isDirectory()) {
+            File[] children = path.listFiles();
+            if (children == null) return;
+            Arrays.sort(children);
+            for (File child : children)
+                addToDigest(child, digest);
+        }
+    }
+
+    /** A shared imported model, with the source path of the model it is used for */
+    private static class SourcedModel implements ImportedMlModel {
+
+        private final ImportedMlModel model;
+        private final String source;
+
+        SourcedModel(ImportedMlModel model, String source) {
+            this.model = model;
+            this.source = source;
+        }
+
+        @Override public String name() { return model.name(); }
+        @Override public String source() { return source; }
+        @Override public Optional<String> inputTypeSpec(String input) { return model.inputTypeSpec(input); }
+        @Override public Map<String, String> smallConstants() { return model.smallConstants(); }
+        @Override public Map<String, String> largeConstants() { return model.largeConstants(); }
+        @Override public Map<String, String> functions() { return model.functions(); }
+        @Override public List<ImportedMlFunction> outputExpressions() { return model.outputExpressions(); }
+
+        @Override
+        public String toString() { return "imported model '" + name() + "' from " + source; }
+
+    }
+
+}
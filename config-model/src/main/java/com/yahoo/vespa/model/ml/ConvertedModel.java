@@ -259,10 +259,8 @@ public class ConvertedModel {
         for (Pair<String, Tensor> constant : store.readSmallConstants())
             profile.addConstant(constant.getFirst(), asValue(constant.getSecond()));
 
-        for (RankingConstant constant : store.readLargeConstants()) {
-            if ( ! profile.rankingConstants().asMap().containsKey(constant.getName()))
-                profile.rankingConstants().add(constant);
-        }
+        for (RankingConstant constant : store.readLargeConstants())
+            profile.rankingConstants().addIfAbsent(constant.getName(), () -> constant);
 
         for (Pair<String, RankingExpression> function : store.readFunctions()) {
             addGeneratedFunctionToProfile(profile, function.getFirst(), function.getSecond());
@@ -295,10 +293,8 @@ public class ConvertedModel {
         }
         else {
             Path constantPath = store.writeLargeConstant(constantName, constantValue);
-            if ( ! profile.rankingConstants().asMap().containsKey(constantName)) {
-                profile.rankingConstants().add(new RankingConstant(constantName, constantValue.type(),
-                                                                   constantPath.toString()));
-            }
+            profile.rankingConstants().addIfAbsent(constantName, () -> new RankingConstant(constantName, constantValue.type(),
+                                                                                           constantPath.toString()));
         }
     }
 
@@ -619,7 +615,7 @@ public class ConvertedModel {
         private void createIfNeeded(Path path) {
             File dir = application.getFileReference(path);
             if ( ! dir.exists()) {
-                if (!dir.mkdirs())
+                if ( ! dir.mkdirs() && ! dir.isDirectory()) // may be created concurrently by another rank profile
                     throw new IllegalStateException("Could not create " + dir);
             }
         }
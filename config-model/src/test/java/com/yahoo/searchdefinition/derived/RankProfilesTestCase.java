@@ -1,10 +1,19 @@
 // Copyright 2017 Yahoo Holdings. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.searchdefinition.derived;
 
+import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlModels;
+import com.yahoo.search.query.profile.QueryProfileRegistry;
+import com.yahoo.searchdefinition.RankProfileRegistry;
+import com.yahoo.searchdefinition.SearchBuilder;
 import com.yahoo.searchdefinition.parser.ParseException;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Tests a search definition with various rank profiles having different settings
@@ -16,4 +25,51 @@ public class RankProfilesTestCase extends AbstractExportingTestCase {
     public void testRankProfiles() throws IOException, ParseException {
         assertCorrectDeriving("rankprofiles");
     }
+
+    @Test
+    public void testManyRankProfilesAreDerivedInOrder() throws ParseException {
+        List<String> expected = new ArrayList<>();
+        expected.add("default");
+        expected.add("unranked");
+        for (int i = 0; i < 40; i++)
+            expected.add("profile" + i);
+        DerivedConfiguration derived = derive(rankProfiles(40, ""));
+        assertEquals(expected, new ArrayList<>(derived.getRankProfileList().getRankProfiles().keySet()));
+        assertEquals(derived.getRankProfileList().getRankProfile("profile17").configProperties(),
+                     derive(rankProfiles(40, "")).getRankProfileList().getRankProfile("profile17").configProperties());
+    }
+
+    @Test
+    public void testErrorInOneOfManyRankProfilesIsReported() throws ParseException {
+        try {
+            derive(rankProfiles(40, "    constants { f: 1 }\n"));
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("Rank profile 'profile0' is invalid", e.getMessage());
+        }
+    }
+
+    private DerivedConfiguration derive(String schema) throws ParseException {
+        RankProfileRegistry rankProfileRegistry = new RankProfileRegistry();
+        SearchBuilder builder = new SearchBuilder(rankProfileRegistry);
+        builder.importString(schema);
+        builder.build();
+        return new DerivedConfiguration(builder.getSearch(), rankProfileRegistry, new QueryProfileRegistry(), new ImportedMlModels());
+    }
+
+    private String rankProfiles(int count, String extraInFirst) {
+        StringBuilder b = new StringBuilder("search test {\n" +
+                                            "  document test {\n" +
+                                            "    field a type int { indexing: attribute }\n" +
+                                            "  }\n");
+        for (int i = 0; i < count; i++) {
+            b.append("  rank-profile profile").append(i).append(" {\n");
+            b.append("    function f(x) { expression: attribute(a) * x + ").append(i).append(" }\n");
+            b.append(i == 0 ? extraInFirst : "      first-phase { expression: f(" + i + ") }\n");
+            b.append("  }\n");
+        }
+        return b.append("}\n").toString();
+    }
+
 }
@@ -4,6 +4,8 @@ package com.yahoo.searchdefinition.processing;
 import com.google.common.collect.ImmutableList;
 import com.yahoo.config.application.api.ApplicationPackage;
 import ai.vespa.rankingexpression.importer.configmodelview.MlModelImporter;
+import com.yahoo.config.model.application.provider.BaseDeployLogger;
+import com.yahoo.config.model.deploy.TestProperties;
 import com.yahoo.config.model.test.MockApplicationPackage;
 import com.yahoo.path.Path;
 import com.yahoo.search.query.profile.QueryProfileRegistry;
@@ -11,6 +13,7 @@ import com.yahoo.searchdefinition.RankProfile;
 import com.yahoo.searchdefinition.RankProfileRegistry;
 import com.yahoo.searchdefinition.Search;
 import com.yahoo.searchdefinition.SearchBuilder;
+import com.yahoo.searchdefinition.derived.DerivedConfiguration;
 import com.yahoo.searchdefinition.parser.ParseException;
 import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlModels;
 import ai.vespa.rankingexpression.importer.onnx.OnnxImporter;
@@ -107,6 +110,12 @@ class RankProfileSearchFixture {
         return compiled;
     }
 
+    /** Derives the rank profiles of this, importing models from the given directory */
+    public DerivedConfiguration derive(Path applicationDir) {
+        return new DerivedConfiguration(search, new BaseDeployLogger(), new TestProperties(), rankProfileRegistry,
+                                        queryProfileRegistry, new ImportedMlModels(applicationDir.toFile(), importers));
+    }
+
     /** Returns the given uncompiled profile */
     public RankProfile rankProfile(String rankProfile) {
         return rankProfileRegistry.get(search, rankProfile);
@@ -8,6 +8,8 @@ import com.yahoo.io.IOUtils;
 import com.yahoo.io.reader.NamedReader;
 import com.yahoo.path.Path;
 import com.yahoo.search.query.profile.QueryProfileRegistry;
+import com.yahoo.searchdefinition.derived.DerivedConfiguration;
+import com.yahoo.searchdefinition.derived.RankProfileList;
 import com.yahoo.searchdefinition.parser.ParseException;
 import com.yahoo.searchlib.rankingexpression.evaluation.Value;
 import com.yahoo.tensor.TensorType;
@@ -349,6 +351,33 @@ public class RankingExpressionWithOnnxTestCase {
         }
     }
 
+    @Test
+    public void testProfilesImportingTheSameModel() {
+        StringBuilder rankProfiles = new StringBuilder();
+        for (int i = 0; i < 8; i++)
+            rankProfiles.append("  rank-profile my_profile_").append(i).append(" {\n" +
+                                "    function Placeholder() {\n" +
+                                "      expression: tensor<float>(d0[1],d1[784])(0.0)\n" +
+                                "    }\n" +
+                                "    first-phase {\n" +
+                                "      expression: onnx_vespa('mnist_softmax.onnx')\n" +
+                                "    }\n" +
+                                "  }\n");
+        RankProfileSearchFixture search = uncompiledFixtureWith(rankProfiles.toString(), new StoringApplicationPackage(applicationDir));
+        DerivedConfiguration derived = search.derive(applicationDir.append("models"));
+
+        assertEquals(List.of(name + "_layer_Variable", name + "_layer_Variable_1"),
+                     new ArrayList<>(search.search().rankingConstants().asMap().keySet()));
+        RankProfileList profiles = derived.getRankProfileList();
+        List<String> expectedNames = new ArrayList<>(List.of("default", "unranked"));
+        for (int i = 0; i < 8; i++) {
+            expectedNames.add("my_profile_" + i);
+            assertEquals(profiles.getRankProfile("my_profile_0").configProperties(),
+                         profiles.getRankProfile("my_profile_" + i).configProperties());
+        }
+        assertEquals(expectedNames, new ArrayList<>(profiles.getRankProfiles().keySet()));
+    }
+
     private void assertSmallConstant(String name, TensorType type, RankProfileSearchFixture search) {
         Value value = search.compiledRankProfile("my_profile").getConstants().get(name);
         assertNotNull(value);
@@ -418,7 +447,7 @@ public class RankingExpressionWithOnnxTestCase {
 
         @Override
         public ApplicationFile getFile(Path file) {
-            return new MockApplicationFile(file, Path.fromString(root().toString()));
+            return new MockApplicationFile(file, root());
         }
 
         @Override
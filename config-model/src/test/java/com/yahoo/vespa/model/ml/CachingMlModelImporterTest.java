@@ -0,0 +1,90 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.model.ml;
+
+import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlFunction;
+import ai.vespa.rankingexpression.importer.configmodelview.ImportedMlModel;
+import ai.vespa.rankingexpression.importer.configmodelview.MlModelImporter;
+import com.yahoo.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+public class CachingMlModelImporterTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void models_with_unchanged_content_are_imported_once() throws IOException {
+        CountingImporter counting = new CountingImporter();
+        MlModelImporter importer = new CachingMlModelImporter(counting);
+
+        File first = modelFile("app1", "content");
+        File second = modelFile("app2", "content");
+        assertEquals(first.toString(), importer.importModel("model", first).source());
+        assertEquals(second.toString(), importer.importModel("model", second).source());
+        assertEquals(1, counting.imports);
+
+        importer.importModel("other_name", second);
+        assertEquals(2, counting.imports);
+
+        IOUtils.writeFile(second, "changed content", false);
+        importer.importModel("model", second);
+        assertEquals(3, counting.imports);
+    }
+
+    @Test
+    public void least_recently_used_models_are_evicted() throws IOException {
+        CountingImporter counting = new CountingImporter();
+        MlModelImporter importer = new CachingMlModelImporter(counting, 1);
+
+        File first = modelFile("app", "first");
+        File second = modelFile("app", "second");
+        importer.importModel("first", first);
+        importer.importModel("second", second);
+        importer.importModel("second", second);
+        assertEquals(2, counting.imports);
+        importer.importModel("first", first);
+        assertEquals(3, counting.imports);
+    }
+
+    private File modelFile(String directory, String content) throws IOException {
+        File dir = new File(tmp.getRoot(), directory);
+        dir.mkdirs();
+        File file = new File(dir, "model.onnx");
+        IOUtils.writeFile(file, content, false);
+        return file;
+    }
+
+    private static class CountingImporter implements MlModelImporter {
+
+        int imports = 0;
+
+        @Override
+        public boolean canImport(String modelPath) { return true; }
+
+        @Override
+        public ImportedMlModel importModel(String modelName, File modelPath) {
+            imports++;
+            return new ImportedMlModel() {
+                @Override public String name() { return modelName; }
+                @Override public String source() { return modelPath.toString(); }
+                @Override public Optional<String> inputTypeSpec(String input) { return Optional.empty(); }
+                @Override public Map<String, String> smallConstants() { return Map.of(); }
+                @Override public Map<String, String> largeConstants() { return Map.of(); }
+                @Override public Map<String, String> functions() { return Map.of(); }
+                @Override public List<ImportedMlFunction> outputExpressions() { return List.of(); }
+            };
+        }
+
+    }
+
+}
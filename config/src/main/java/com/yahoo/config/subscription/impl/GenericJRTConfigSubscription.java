@@ -59,6 +59,26 @@ public class GenericJRTConfigSubscription extends JRTConfigSubscription<RawConfi
         }
     }
 
+    @Override
+    public boolean acceptsPayloadDelta() {
+        return true;
+    }
+
+    // The base config is either the newest response not yet polled from the queue, or the current config
+    @Override
+    boolean applyPayloadDelta(JRTClientConfigRequest jrtReq) {
+        String baseMd5 = jrtReq.getPayloadDeltaBase().orElseThrow();
+        JRTClientConfigRequest pending = getReqQueue().peek();
+        if (pending != null && pending.hasUpdatedConfig() && baseMd5.equals(pending.getNewConfigMd5()))
+            return jrtReq.applyPayloadDelta(pending.getNewPayload());
+
+        RawConfig config = getConfigState().getConfig();
+        if (config != null && baseMd5.equals(config.getConfigMd5()))
+            return jrtReq.applyPayloadDelta(config.getPayload());
+
+        return jrtReq.applyPayloadDelta(null);
+    }
+
     public RawConfig getRawConfig() {
         return getConfigState().getConfig();
     }
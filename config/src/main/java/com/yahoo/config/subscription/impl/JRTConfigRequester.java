@@ -242,6 +242,12 @@ public class JRTConfigRequester implements RequestWaiter {
         connection.setSuccess();
         sub.setLastCallBackOKTS(Instant.now());
         log.log(FINE, () -> "OK response received in handleOkRequest: " + jrtReq);
+        if (jrtReq.getPayloadDeltaBase().isPresent() && ! sub.applyPayloadDelta(jrtReq)) {
+            log.log(FINE, () -> "Unable to apply payload delta, requesting complete config: " + jrtReq);
+            if (sub.getState() != ConfigSubscription.State.OPEN) return;
+            scheduleNextRequest(jrtReq, sub, 0, calculateSuccessTimeout());
+            return;
+        }
         if (jrtReq.hasUpdatedGeneration()) {
             // We only want this latest generation to be in the queue, we do not preserve history in this system
             sub.getReqQueue().clear();
@@ -176,6 +176,20 @@ public class JRTConfigSubscription<T extends ConfigInstance> extends ConfigSubsc
         };
     }
 
+    /** Returns whether this subscription is able to resolve payload deltas in responses, see {@link #applyPayloadDelta} */
+    public boolean acceptsPayloadDelta() {
+        return false;
+    }
+
+    /**
+     * Resolves the payload delta in the given response against the config this subscription has.
+     *
+     * @return true if the complete payload could be resolved, false otherwise
+     */
+    boolean applyPayloadDelta(JRTClientConfigRequest jrtReq) {
+        return false;
+    }
+
     /**
      * The timing values of this
      *
@@ -1,6 +1,8 @@
 // Copyright 2017 Yahoo Holdings. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.config.protocol;
 
+import java.util.Optional;
+
 /**
  * Interface for config requests used by clients.
  *
@@ -86,4 +88,20 @@ public interface JRTClientConfigRequest extends JRTConfigRequest {
      */
     DefContent getDefContent();
 
+    /**
+     * Returns the md5 of the config which the payload in the response is a {@link PayloadDelta} against,
+     * or empty if the response contains a complete payload.
+     */
+    Optional<String> getPayloadDeltaBase();
+
+    /**
+     * Resolves the payload delta in the response against the given (complete) payload of the config with md5
+     * {@link #getPayloadDeltaBase()}. If this succeeds, {@link #getNewPayload()} returns the complete payload. Otherwise
+     * the next request created from this will ask for the complete payload.
+     *
+     * @param base the complete payload of the base config, or null if it is not available
+     * @return true if the delta was applied and the result has the expected md5, false otherwise
+     */
+    boolean applyPayloadDelta(Payload base);
+
 }
@@ -34,6 +34,11 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
     protected final SlimeRequestData requestData;
     protected final Request request;
     private final SlimeResponseData responseData;
+    /** The complete payload, when the response payload is a delta which has been resolved */
+    private Payload resolvedPayload = null;
+    private boolean payloadDeltaFailed = false;
+    /** Whether the requests following this should accept payload deltas, also when this one does not */
+    private final boolean payloadDeltasEnabled;
 
     protected JRTClientConfigRequestV3(ConfigKey<?> key,
                                        String hostname,
@@ -44,6 +49,34 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
                                        Trace trace,
                                        CompressionType compressionType,
                                        Optional<VespaVersion> vespaVersion) {
+        this(key, hostname, defSchema, configMd5, generation, timeout, trace, compressionType, vespaVersion, false);
+    }
+
+    protected JRTClientConfigRequestV3(ConfigKey<?> key,
+                                       String hostname,
+                                       DefContent defSchema,
+                                       String configMd5,
+                                       long generation,
+                                       long timeout,
+                                       Trace trace,
+                                       CompressionType compressionType,
+                                       Optional<VespaVersion> vespaVersion,
+                                       boolean acceptsPayloadDelta) {
+        this(key, hostname, defSchema, configMd5, generation, timeout, trace, compressionType, vespaVersion,
+             acceptsPayloadDelta, acceptsPayloadDelta);
+    }
+
+    private JRTClientConfigRequestV3(ConfigKey<?> key,
+                                     String hostname,
+                                     DefContent defSchema,
+                                     String configMd5,
+                                     long generation,
+                                     long timeout,
+                                     Trace trace,
+                                     CompressionType compressionType,
+                                     Optional<VespaVersion> vespaVersion,
+                                     boolean acceptsPayloadDelta,
+                                     boolean payloadDeltasEnabled) {
         Slime data = SlimeRequestData.encodeRequest(key,
                                                     hostname,
                                                     defSchema,
@@ -53,13 +86,15 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
                                                     trace,
                                                     getProtocolVersion(),
                                                     compressionType,
-                                                    vespaVersion);
+                                                    vespaVersion,
+                                                    acceptsPayloadDelta);
         Request jrtReq = new Request(getJRTMethodName());
         jrtReq.parameters().add(new StringValue(encodeAsUtf8String(data)));
 
         this.requestData = new SlimeRequestData(jrtReq, data);
         this.responseData = new SlimeResponseData(jrtReq);
         this.request = jrtReq;
+        this.payloadDeltasEnabled = payloadDeltasEnabled;
     }
 
     protected static String encodeAsUtf8String(Slime data) {
@@ -82,11 +117,32 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
 
     @Override
     public Payload getNewPayload() {
+        if (resolvedPayload != null) return resolvedPayload;
+
         CompressionInfo compressionInfo = getResponseData().getCompressionInfo();
         Utf8Array payload = new Utf8Array(request.returnValues().get(1).asData());
         return Payload.from(payload, compressionInfo);
     }
 
+    @Override
+    public Optional<String> getPayloadDeltaBase() {
+        return responseData.getResponsePayloadDeltaBase();
+    }
+
+    @Override
+    public boolean applyPayloadDelta(Payload base) {
+        if (base == null) {
+            payloadDeltaFailed = true;
+            return false;
+        }
+        Optional<Utf8Array> payload = PayloadDelta.apply(base.withCompression(CompressionType.UNCOMPRESSED).getData(),
+                                                         getNewPayload().withCompression(CompressionType.UNCOMPRESSED).getData(),
+                                                         getNewConfigMd5());
+        resolvedPayload = payload.map(data -> Payload.from(data).withCompression(requestData.getCompressionType())).orElse(null);
+        payloadDeltaFailed = payload.isEmpty();
+        return payload.isPresent();
+    }
+
     @Override
     public long getProtocolVersion() {
         return 3;
@@ -94,15 +150,20 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
 
     @Override
     public JRTClientConfigRequest nextRequest(long timeout) {
+        // If a payload delta could not be applied, ask again for the complete payload of the new config,
+        // and accept deltas again in the request after that
+        boolean keepRequestConfig = isError() || payloadDeltaFailed;
         return new JRTClientConfigRequestV3(getConfigKey(),
                 getClientHostName(),
                 getDefContent(),
-                isError() ? getRequestConfigMd5() : newConfMd5(),
-                isError() ? getRequestGeneration() : newGen(),
+                keepRequestConfig ? getRequestConfigMd5() : newConfMd5(),
+                keepRequestConfig ? getRequestGeneration() : newGen(),
                 timeout,
                 Trace.createNew(),
                 requestData.getCompressionType(),
-                requestData.getVespaVersion());
+                requestData.getVespaVersion(),
+                payloadDeltasEnabled && ! payloadDeltaFailed,
+                payloadDeltasEnabled);
     }
 
     public static <T extends ConfigInstance> JRTClientConfigRequest createFromSub(JRTConfigSubscription<T> sub,
@@ -111,15 +172,16 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
                                                                                   Optional<VespaVersion> vespaVersion) {
         ConfigSubscription.ConfigState<T> configState = sub.getConfigState();
         T config = configState.getConfig();
-        return createWithParams(sub.getKey(),
-                                sub.getDefContent(),
-                                ConfigUtils.getCanonicalHostName(),
-                                config != null ? config.getConfigMd5() : "",
-                                configState.getGeneration(),
-                                sub.timingValues().getSubscribeTimeout(),
-                                trace,
-                                compressionType,
-                                vespaVersion);
+        return new JRTClientConfigRequestV3(sub.getKey(),
+                                            ConfigUtils.getCanonicalHostName(),
+                                            sub.getDefContent(),
+                                            config != null ? config.getConfigMd5() : "",
+                                            configState.getGeneration(),
+                                            sub.timingValues().getSubscribeTimeout(),
+                                            trace,
+                                            compressionType,
+                                            vespaVersion,
+                                            sub.acceptsPayloadDelta());
     }
 
     public static JRTClientConfigRequest createFromRaw(RawConfig config,
@@ -38,6 +38,22 @@ public interface JRTServerConfigRequest extends JRTConfigRequest, GetConfigReque
      */
     void addOkResponse(Payload payload, long generation, boolean applyOnRestart, String configMd5);
 
+    /**
+     * Signal that the request was handled, with a payload which is a {@link PayloadDelta} against the config
+     * the client has. Must only be used when {@link #acceptsPayloadDelta()} is true.
+     *
+     * @param delta the delta which transforms the config with md5 baseConfigMd5 into the config with md5 configMd5
+     * @param generation the config generation of the new config
+     * @param applyOnRestart true if this config should only be applied on the next restart,
+     *                       false if it should be applied right away
+     * @param configMd5 the md5sum of the new config
+     * @param baseConfigMd5 the md5sum of the config the delta should be applied to
+     */
+    void addOkDeltaResponse(Payload delta, long generation, boolean applyOnRestart, String configMd5, String baseConfigMd5);
+
+    /** Returns true if the client is able to apply a {@link PayloadDelta} to the config it has */
+    boolean acceptsPayloadDelta();
+
     /**
      * Get the current config md5 of the client config.
      *
@@ -68,6 +68,17 @@ public class JRTServerConfigRequestV3 implements JRTServerConfigRequest {
 
     @Override
     public void addOkResponse(Payload payload, long generation, boolean applyOnRestart, String configMd5) {
+        addOkResponse(payload, generation, applyOnRestart, configMd5, Optional.empty());
+    }
+
+    @Override
+    public void addOkDeltaResponse(Payload delta, long generation, boolean applyOnRestart, String configMd5, String baseConfigMd5) {
+        if ( ! acceptsPayloadDelta())
+            throw new IllegalStateException("Client does not accept payload deltas: " + this);
+        addOkResponse(delta, generation, applyOnRestart, configMd5, Optional.of(baseConfigMd5));
+    }
+
+    private void addOkResponse(Payload payload, long generation, boolean applyOnRestart, String configMd5, Optional<String> payloadDeltaBase) {
         this.applyOnRestart = applyOnRestart;
         boolean changedConfig = !configMd5.equals(getRequestConfigMd5());
         boolean changedConfigAndNewGeneration = changedConfig && ConfigUtils.isGenerationNewer(generation, getRequestGeneration());
@@ -80,6 +91,8 @@ public class JRTServerConfigRequestV3 implements JRTServerConfigRequest {
             setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_CONFIG_MD5, configMd5);
             setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_CONFIG_GENERATION, generation);
             setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_APPLY_ON_RESTART, applyOnRestart);
+            if (payloadDeltaBase.isPresent())
+                setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_PAYLOAD_DELTA_BASE, payloadDeltaBase.get());
             jsonGenerator.writeObjectFieldStart(SlimeResponseData.RESPONSE_COMPRESSION_INFO);
             if (responsePayload == null) {
                 throw new RuntimeException("Payload is null for ' " + this + ", not able to create response");
@@ -113,6 +126,9 @@ public class JRTServerConfigRequestV3 implements JRTServerConfigRequest {
     @Override
     public boolean applyOnRestart() { return applyOnRestart; }
 
+    @Override
+    public boolean acceptsPayloadDelta() { return requestData.acceptsPayloadDelta(); }
+
     public static JRTServerConfigRequestV3 createFromRequest(Request req) {
         return new JRTServerConfigRequestV3(req);
     }
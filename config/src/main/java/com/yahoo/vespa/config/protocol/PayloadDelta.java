@@ -0,0 +1,142 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.slime.ArrayInserter;
+import com.yahoo.slime.ArrayTraverser;
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Injector;
+import com.yahoo.slime.Inserter;
+import com.yahoo.slime.Inspector;
+import com.yahoo.slime.ObjectInserter;
+import com.yahoo.slime.ObjectTraverser;
+import com.yahoo.slime.Slime;
+import com.yahoo.slime.SlimeInserter;
+import com.yahoo.slime.SlimeUtils;
+import com.yahoo.slime.Type;
+import com.yahoo.text.Utf8Array;
+import com.yahoo.vespa.config.util.ConfigUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A structural diff between two config payloads, used to avoid sending a complete payload to clients
+ * which already have an earlier version of the same config.
+ *
+ * A delta is a tree of objects mirroring the changed parts of the payload, where each node is one of
+ * <ul>
+ *     <li><code>{"value": v}</code>: the value is replaced by <code>v</code></li>
+ *     <li><code>{"fields": {name: delta, ...}}</code>: an object with the same field names, in the same order,
+ *         where only the listed fields are changed</li>
+ *     <li><code>{"entries": [{"index": i, "delta": delta}, ...]}</code>: an array of the same length,
+ *         where only the listed entries are changed</li>
+ * </ul>
+ * Applying a delta preserves the field order of the base payload, so the resulting payload has the same md5 as the
+ * payload the delta was created from. Clients must still verify this, and ask for the full payload on mismatch.
+ */
+public class PayloadDelta {
+
+    private static final String VALUE = "value";
+    private static final String FIELDS = "fields";
+    private static final String ENTRIES = "entries";
+    private static final String INDEX = "index";
+    private static final String DELTA = "delta";
+
+    private PayloadDelta() {}
+
+    /** Returns a delta which transforms the uncompressed json payload <code>from</code> into <code>to</code> */
+    public static Utf8Array create(Utf8Array from, Utf8Array to) {
+        Slime delta = new Slime();
+        diff(SlimeUtils.jsonToSlime(from.getBytes()).get(), SlimeUtils.jsonToSlime(to.getBytes()).get(), new SlimeInserter(delta));
+        return toJson(delta.get());
+    }
+
+    /**
+     * Applies the given delta to the uncompressed json payload <code>base</code>, and returns the result,
+     * or empty if the result does not have the expected md5.
+     */
+    public static Optional<Utf8Array> apply(Utf8Array base, Utf8Array delta, String expectedMd5) {
+        Slime result = new Slime();
+        try {
+            apply(SlimeUtils.jsonToSlime(base.getBytes()).get(), SlimeUtils.jsonToSlime(delta.getBytes()).get(), new SlimeInserter(result));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Utf8Array payload = toJson(result.get());
+        return ConfigUtils.getMd5(payload).equals(expectedMd5) ? Optional.of(payload) : Optional.empty();
+    }
+
+    private static void diff(Inspector from, Inspector to, Inserter inserter) {
+        Cursor node = inserter.insertOBJECT();
+        if (from.type() == Type.OBJECT && to.type() == Type.OBJECT && fieldNames(from).equals(fieldNames(to))) {
+            Cursor fields = node.setObject(FIELDS);
+            from.traverse((ObjectTraverser) (name, value) -> {
+                if ( ! value.equalTo(to.field(name)))
+                    diff(value, to.field(name), new ObjectInserter(fields, name));
+            });
+        }
+        else if (from.type() == Type.ARRAY && to.type() == Type.ARRAY && from.entries() == to.entries()) {
+            Cursor entries = node.setArray(ENTRIES);
+            from.traverse((ArrayTraverser) (index, value) -> {
+                if ( ! value.equalTo(to.entry(index))) {
+                    Cursor entry = entries.addObject();
+                    entry.setLong(INDEX, index);
+                    diff(value, to.entry(index), new ObjectInserter(entry, DELTA));
+                }
+            });
+        }
+        else {
+            new Injector().inject(to, new ObjectInserter(node, VALUE));
+        }
+    }
+
+    private static void apply(Inspector base, Inspector delta, Inserter inserter) {
+        if (delta.field(VALUE).valid()) {
+            new Injector().inject(delta.field(VALUE), inserter);
+        }
+        else if (delta.field(FIELDS).valid() && base.type() == Type.OBJECT) {
+            Inspector fields = delta.field(FIELDS);
+            Cursor object = inserter.insertOBJECT();
+            base.traverse((ObjectTraverser) (name, value) -> {
+                if (fields.field(name).valid())
+                    apply(value, fields.field(name), new ObjectInserter(object, name));
+                else
+                    new Injector().inject(value, new ObjectInserter(object, name));
+            });
+        }
+        else if (delta.field(ENTRIES).valid() && base.type() == Type.ARRAY) {
+            Map<Integer, Inspector> entries = new HashMap<>();
+            delta.field(ENTRIES).traverse((ArrayTraverser) (i, entry) -> entries.put((int) entry.field(INDEX).asLong(), entry.field(DELTA)));
+            Cursor array = inserter.insertARRAY();
+            base.traverse((ArrayTraverser) (index, value) -> {
+                if (entries.containsKey(index))
+                    apply(value, entries.get(index), new ArrayInserter(array));
+                else
+                    new Injector().inject(value, new ArrayInserter(array));
+            });
+        }
+        else {
+            throw new IllegalArgumentException("Delta does not match base payload: " + delta);
+        }
+    }
+
+    private static List<String> fieldNames(Inspector object) {
+        List<String> names = new ArrayList<>(object.fields());
+        object.traverse((ObjectTraverser) (name, value) -> names.add(name));
+        return names;
+    }
+
+    private static Utf8Array toJson(Inspector inspector) {
+        try {
+            return new Utf8Array(SlimeUtils.toJsonBytes(inspector));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
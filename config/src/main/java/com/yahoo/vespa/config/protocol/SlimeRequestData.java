@@ -31,6 +31,7 @@ class SlimeRequestData {
     private static final String REQUEST_DEF_MD5 = "defMD5";
     private static final String REQUEST_COMPRESSION_TYPE = "compressionType";
     private static final String REQUEST_VESPA_VERSION = "vespaVersion";
+    private static final String REQUEST_ACCEPTS_PAYLOAD_DELTA = "acceptsPayloadDelta";
 
     private final Request request;
     private Slime data = null;
@@ -92,7 +93,8 @@ class SlimeRequestData {
                                Trace trace,
                                long protocolVersion,
                                CompressionType compressionType,
-                               Optional<VespaVersion> vespaVersion) {
+                               Optional<VespaVersion> vespaVersion,
+                               boolean acceptsPayloadDelta) {
         Slime data = new Slime();
         Cursor request = data.setObject();
         request.setLong(REQUEST_VERSION, protocolVersion);
@@ -107,6 +109,8 @@ class SlimeRequestData {
         request.setLong(REQUEST_TIMEOUT, timeout);
         request.setString(REQUEST_COMPRESSION_TYPE, compressionType.name());
         vespaVersion.ifPresent(version -> request.setString(REQUEST_VESPA_VERSION, version.toString()));
+        if (acceptsPayloadDelta)
+            request.setBool(REQUEST_ACCEPTS_PAYLOAD_DELTA, true);
         trace.serialize(request.setObject(REQUEST_TRACE));
         return data;
     }
@@ -120,6 +124,11 @@ class SlimeRequestData {
         return field.valid() ? CompressionType.parse(field.asString()) : CompressionType.UNCOMPRESSED;
     }
 
+    /** Returns whether the client is able to apply a {@link PayloadDelta} to the config it has */
+    boolean acceptsPayloadDelta() {
+        return getRequestField(REQUEST_ACCEPTS_PAYLOAD_DELTA).asBool();
+    }
+
     public Optional<VespaVersion> getVespaVersion() {
         String versionString = getRequestField(REQUEST_VESPA_VERSION).asString(); // will be "" if not set, never null
         return versionString.isEmpty() ? Optional.empty() : Optional.of(VespaVersion.fromString(versionString));
@@ -6,6 +6,8 @@ import com.yahoo.slime.Inspector;
 import com.yahoo.slime.Slime;
 import com.yahoo.slime.SlimeUtils;
 
+import java.util.Optional;
+
 /**
  * Contains response data for a slime response and methods for decoding the response data that
  * are common to all {@link Slime} based config requests.
@@ -25,6 +27,7 @@ class SlimeResponseData {
     static final String RESPONSE_CONFIG_GENERATION = "generation";
     static final String RESPONSE_APPLY_ON_RESTART = "applyOnRestart";
     static final String RESPONSE_COMPRESSION_INFO = "compressionInfo";
+    static final String RESPONSE_PAYLOAD_DELTA_BASE = "payloadDeltaBase";
 
     private final Request request;
     private Slime data = null;
@@ -67,6 +70,12 @@ class SlimeResponseData {
         return CompressionInfo.fromSlime(getResponseField(RESPONSE_COMPRESSION_INFO));
     }
 
+    /** Returns the md5 of the config the payload is a delta against, or empty if the payload is a complete config */
+    Optional<String> getResponsePayloadDeltaBase() {
+        Inspector inspector = getResponseField(RESPONSE_PAYLOAD_DELTA_BASE);
+        return inspector.valid() ? Optional.of(inspector.asString()) : Optional.empty();
+    }
+
     boolean getResponseApplyOnRestart() {
         Inspector inspector = getResponseField(RESPONSE_APPLY_ON_RESTART);
         return inspector.valid() && inspector.asBool();
@@ -115,6 +115,42 @@ public class JRTConfigRequestV3Test {
         assertTrue(clientReq.hasUpdatedGeneration());
     }
 
+    @Test
+    public void payload_delta_response_is_applied() {
+        JRTClientConfigRequest client = new JRTClientConfigRequestV3(ConfigKey.createFull(defName, configId, defNamespace, defMd5),
+                                                                     hostname,
+                                                                     DefContent.fromList(Arrays.asList("namespace=my.name.space", "myfield string")),
+                                                                     configMd5, currentGeneration, timeout, Trace.createNew(),
+                                                                     CompressionType.LZ4, vespaVersion, true);
+        JRTServerConfigRequest server = createReq(client.getRequest());
+        assertTrue(server.acceptsPayloadDelta());
+        assertFalse(serverReq.acceptsPayloadDelta());
+
+        Payload payload = createPayload("vale");
+        String md5 = ConfigUtils.getMd5(payload.getData());
+        Payload delta = Payload.from(PayloadDelta.create(createPayload().getData(), payload.getData()));
+        server.addOkDeltaResponse(delta, 4L, false, md5, configMd5);
+        assertTrue(client.validateResponse());
+        assertThat(client.getPayloadDeltaBase(), is(Optional.of(configMd5)));
+
+        assertFalse(client.applyPayloadDelta(Payload.from("{\"otherfield\":\"bar\"}")));
+        JRTClientConfigRequest fallback = client.nextRequest(6);
+        JRTServerConfigRequest fallbackServer = createReq(fallback.getRequest());
+        assertThat(fallbackServer.getRequestConfigMd5(), is(configMd5));
+        assertFalse(fallbackServer.acceptsPayloadDelta());
+
+        // The complete payload is only asked for once
+        fallbackServer.addOkResponse(payload, 5L, false, md5);
+        assertTrue(fallback.validateResponse());
+        JRTServerConfigRequest afterFallback = createReq(fallback.nextRequest(6).getRequest());
+        assertThat(afterFallback.getRequestConfigMd5(), is(md5));
+        assertTrue(afterFallback.acceptsPayloadDelta());
+
+        assertTrue(client.applyPayloadDelta(createPayload().withCompression(CompressionType.LZ4)));
+        assertThat(client.getNewPayload().withCompression(CompressionType.UNCOMPRESSED).getData().toString(), is(payload.getData().toString()));
+        assertThat(client.getNewConfigMd5(), is(md5));
+    }
+
     @Test
     public void error_response_adds_common_elements() {
         serverReq.addErrorResponse(ErrorCode.APPLICATION_NOT_LOADED, ErrorCode.getName(ErrorCode.APPLICATION_NOT_LOADED));
@@ -0,0 +1,65 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.text.Utf8Array;
+import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.util.ConfigUtils;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadDeltaTest {
+
+    private static final String base = "{\"name\":\"foo\",\"count\":3,\"ratio\":0.5," +
+                                       "\"nodes\":[{\"host\":\"a\",\"port\":1},{\"host\":\"b\",\"port\":2}]," +
+                                       "\"map\":{\"x\":{\"enabled\":true}}}";
+
+    @Test
+    public void delta_transforms_payload_into_new_payload() {
+        assertRoundTrip(base, "{\"name\":\"foo\",\"count\":4,\"ratio\":0.5," +
+                              "\"nodes\":[{\"host\":\"a\",\"port\":1},{\"host\":\"c\",\"port\":2}]," +
+                              "\"map\":{\"x\":{\"enabled\":false}}}");
+        // Changed array length and object fields are replaced as a whole
+        assertRoundTrip(base, "{\"name\":\"foo\",\"count\":3,\"ratio\":0.5," +
+                              "\"nodes\":[{\"host\":\"a\",\"port\":1}]," +
+                              "\"map\":{\"x\":{\"enabled\":true},\"y\":{\"enabled\":true}}}");
+        assertRoundTrip(base, "{\"other\":\"thing\"}");
+        assertRoundTrip(base, base);
+    }
+
+    @Test
+    public void delta_is_smaller_than_payload_for_small_changes() {
+        String to = base.replace("\"port\":2", "\"port\":3");
+        Utf8Array delta = PayloadDelta.create(payload(base), payload(to));
+        assertTrue(delta.getByteLength() < payload(to).getByteLength());
+        assertEquals("{\"fields\":{\"nodes\":{\"entries\":[{\"index\":1,\"delta\":{\"fields\":{\"port\":{\"value\":3}}}}]}}}",
+                     delta.toString());
+    }
+
+    @Test
+    public void delta_is_not_applied_to_wrong_base() {
+        String to = base.replace("\"port\":2", "\"port\":3");
+        Utf8Array delta = PayloadDelta.create(payload(base), payload(to));
+        String md5 = ConfigUtils.getMd5(payload(to));
+
+        assertFalse(PayloadDelta.apply(payload(base.replace("\"count\":3", "\"count\":5")), delta, md5).isPresent());
+        assertFalse(PayloadDelta.apply(payload("{\"nodes\":\"none\"}"), delta, md5).isPresent());
+        assertFalse(PayloadDelta.apply(payload(base), delta, "wrong md5").isPresent());
+    }
+
+    private static void assertRoundTrip(String from, String to) {
+        Utf8Array delta = PayloadDelta.create(payload(from), payload(to));
+        Optional<Utf8Array> result = PayloadDelta.apply(payload(from), delta, ConfigUtils.getMd5(payload(to)));
+        assertTrue(result.isPresent());
+        assertEquals(payload(to).toString(), result.get().toString());
+    }
+
+    private static Utf8Array payload(String json) {
+        return ConfigPayload.fromString(json).toUtf8Array(true);
+    }
+
+}
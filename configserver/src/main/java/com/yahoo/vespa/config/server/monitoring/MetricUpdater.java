@@ -33,6 +33,8 @@ public class MetricUpdater {
     private static final String METRIC_CACHE_CONFIG_CHECKSUMS = getMetricName("cacheChecksumElems");
     private static final String METRIC_DELAYED_RESPONSES = getMetricName("delayedResponses");
     private static final String METRIC_RPCSERVER_WORK_QUEUE_SIZE = getMetricName("rpcServerWorkQueueSize");
+    private static final String METRIC_PAYLOAD_DELTA_RESPONSES = getMetricName("payloadDeltaResponses");
+    private static final String METRIC_PAYLOAD_DELTA_BYTES_SAVED = getMetricName("payloadDeltaBytesSaved");
 
 
     private final Metrics metrics;
@@ -219,4 +221,13 @@ public class MetricUpdater {
     public void setRpcServerQueueSize(int numQueued) {
         metrics.set(METRIC_RPCSERVER_WORK_QUEUE_SIZE, numQueued, metricContext);
     }
+
+    /**
+     * Increment the number of config responses sent as a payload delta instead of the complete payload,
+     * and the number of (uncompressed) payload bytes saved by this.
+     */
+    public void addPayloadDeltaBytesSaved(long bytes) {
+        metrics.increment(METRIC_PAYLOAD_DELTA_RESPONSES, metricContext);
+        metrics.add(METRIC_PAYLOAD_DELTA_BYTES_SAVED, bytes, metricContext);
+    }
 }
@@ -153,6 +153,10 @@ public class Metrics extends AbstractComponent implements MetricUpdaterFactory,
         metric.add(metricName, 1, context);
     }
 
+    void add(String metricName, Number value, Metric.Context context) {
+        metric.add(metricName, value, context);
+    }
+
     void set(String metricName, Number value, Metric.Context context) {
         metric.set(metricName, value, context);
     }
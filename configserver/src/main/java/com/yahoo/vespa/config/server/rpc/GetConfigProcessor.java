@@ -12,6 +12,7 @@ import com.yahoo.vespa.config.ErrorCode;
 import com.yahoo.vespa.config.UnknownConfigIdException;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.Payload;
 import com.yahoo.vespa.config.protocol.SlimeConfigResponse;
 import com.yahoo.vespa.config.protocol.Trace;
 import com.yahoo.vespa.config.protocol.VespaVersion;
@@ -125,7 +126,12 @@ class GetConfigProcessor implements Runnable {
         // config == null is not an error, but indicates that the config will be returned later.
         if ((config != null) && (!config.hasEqualConfig(request) || config.hasNewerGeneration(request) || forceResponse)) {
             // debugLog(trace, "config response before encoding:" + config.toString());
-            request.addOkResponse(request.payloadFromResponse(config), config.getGeneration(), config.applyOnRestart(), config.getConfigMd5());
+            Payload payload = request.payloadFromResponse(config);
+            Optional<Payload> delta = payloadDelta(request, config, payload);
+            if (delta.isPresent())
+                request.addOkDeltaResponse(delta.get(), config.getGeneration(), config.applyOnRestart(), config.getConfigMd5(), request.getRequestConfigMd5());
+            else
+                request.addOkResponse(payload, config.getGeneration(), config.applyOnRestart(), config.getConfigMd5());
             if (logDebug(trace)) {
                 debugLog(trace, "return response: " + request.getShortDescription());
             }
@@ -138,6 +144,23 @@ class GetConfigProcessor implements Runnable {
         }
         return null;
     }
+    /** Returns a delta against the config the client has, if it accepts one and it is smaller than the payload */
+    private Optional<Payload> payloadDelta(JRTServerConfigRequest request, ConfigResponse config, Payload payload) {
+        if ( ! request.acceptsPayloadDelta()) return Optional.empty();
+
+        // Keep the payload sent to this client, as the base of the delta it may ask for next time
+        PayloadDeltas payloadDeltas = rpcServer.payloadDeltas();
+        payloadDeltas.put(config.getConfigMd5(), payload);
+        if (config.hasEqualConfig(request) || ! config.hasNewerGeneration(request)) return Optional.empty();
+
+        long payloadSize = payload.getCompressionInfo().getUncompressedSize();
+        Optional<Payload> delta = payloadDeltas.get(request.getRequestConfigMd5(), config.getConfigMd5())
+                                               .filter(bytes -> bytes.getByteLength() < payloadSize)
+                                               .map(Payload::from);
+        delta.ifPresent(d -> rpcServer.metrics().addPayloadDeltaBytesSaved(payloadSize - d.getData().getByteLength()));
+        return delta;
+    }
+
     @Override
     public void run() {
         rpcServer.hostLivenessTracker().receivedRequestFrom(request.getClientHostName());
@@ -0,0 +1,73 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.rpc;
+
+import com.yahoo.text.Utf8Array;
+import com.yahoo.vespa.config.protocol.CompressionType;
+import com.yahoo.vespa.config.protocol.Payload;
+import com.yahoo.vespa.config.protocol.PayloadDelta;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the most recently served config payloads by md5, so that clients which have one of these configs
+ * can be sent a {@link PayloadDelta} instead of the complete payload when the config changes.
+ * Deltas are kept as well, as the same delta is typically requested by all nodes using a config.
+ * The total size of payloads and deltas kept is bounded, least recently used entries are evicted first.
+ */
+class PayloadDeltas {
+
+    private final long maxBytes;
+    private final Map<String, Utf8Array> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+
+    PayloadDeltas(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Remembers the given complete payload of the config with the given md5 */
+    void put(String configMd5, Payload payload) {
+        if (maxBytes <= 0) return;
+        synchronized (entries) {
+            if (entries.get(configMd5) != null) return;
+        }
+        put(configMd5, payload.withCompression(CompressionType.UNCOMPRESSED).getData());
+    }
+
+    /**
+     * Returns an uncompressed delta which transforms the config with md5 fromMd5 into the config with md5 toMd5,
+     * or empty if the payload of either is not known.
+     */
+    Optional<Utf8Array> get(String fromMd5, String toMd5) {
+        if (fromMd5.isEmpty() || fromMd5.equals(toMd5)) return Optional.empty();
+
+        String key = fromMd5 + "->" + toMd5;
+        Utf8Array from, to;
+        synchronized (entries) {
+            Utf8Array delta = entries.get(key);
+            if (delta != null) return Optional.of(delta);
+
+            from = entries.get(fromMd5);
+            to = entries.get(toMd5);
+        }
+        if (from == null || to == null) return Optional.empty();
+
+        Utf8Array delta = PayloadDelta.create(from, to);
+        put(key, delta);
+        return Optional.of(delta);
+    }
+
+    private void put(String key, Utf8Array value) {
+        synchronized (entries) {
+            Utf8Array previous = entries.put(key, value);
+            bytes += value.getByteLength() - (previous == null ? 0 : previous.getByteLength());
+            for (Iterator<Utf8Array> it = entries.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+                bytes -= it.next().getByteLength();
+                it.remove();
+            }
+        }
+    }
+
+}
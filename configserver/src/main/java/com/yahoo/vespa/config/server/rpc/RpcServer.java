@@ -103,6 +103,7 @@ public class RpcServer implements Runnable, ReloadListener, TenantListener {
 
     private final ThreadPoolExecutor executorService;
     private final FileDownloader downloader;
+    private final PayloadDeltas payloadDeltas;
     private volatile boolean allTenantsLoaded = false;
     private boolean isRunning = false;
 
@@ -142,6 +143,7 @@ public class RpcServer implements Runnable, ReloadListener, TenantListener {
         this.fileServer = fileServer;
         this.rpcAuthorizer = rpcAuthorizer;
         downloader = fileServer.downloader();
+        payloadDeltas = new PayloadDeltas(config.payloadDeltaCacheSizeMb() * 1024L * 1024L);
         handlerProvider.setInstance(this);
         setUpHandlers();
     }
@@ -455,6 +457,14 @@ public class RpcServer implements Runnable, ReloadListener, TenantListener {
         return metricUpdaterFactory;
     }
 
+    MetricUpdater metrics() {
+        return metrics;
+    }
+
+    PayloadDeltas payloadDeltas() {
+        return payloadDeltas;
+    }
+
     boolean useRequestVersion() {
         return useRequestVersion;
     }
@@ -0,0 +1,68 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.rpc;
+
+import com.yahoo.text.Utf8Array;
+import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.protocol.CompressionType;
+import com.yahoo.vespa.config.protocol.Payload;
+import com.yahoo.vespa.config.protocol.PayloadDelta;
+import com.yahoo.vespa.config.util.ConfigUtils;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadDeltasTest {
+
+    private final Payload first = payload("{\"hosts\":[\"a\",\"b\",\"c\"],\"port\":1}");
+    private final Payload second = payload("{\"hosts\":[\"a\",\"b\",\"d\"],\"port\":1}");
+
+    @Test
+    public void delta_is_created_between_known_payloads() {
+        PayloadDeltas deltas = new PayloadDeltas(1 << 20);
+        deltas.put(md5(first), first.withCompression(CompressionType.LZ4));
+        assertFalse(deltas.get(md5(first), md5(second)).isPresent());
+
+        deltas.put(md5(second), second);
+        Optional<Utf8Array> delta = deltas.get(md5(first), md5(second));
+        assertTrue(delta.isPresent());
+        assertSame(delta.get(), deltas.get(md5(first), md5(second)).get());
+        assertEquals(second.getData().toString(),
+                     PayloadDelta.apply(first.getData(), delta.get(), md5(second)).get().toString());
+
+        assertFalse(deltas.get("", md5(second)).isPresent());
+        assertFalse(deltas.get(md5(second), md5(second)).isPresent());
+    }
+
+    @Test
+    public void least_recently_used_payloads_are_evicted() {
+        PayloadDeltas deltas = new PayloadDeltas(first.getData().getByteLength() + second.getData().getByteLength());
+        deltas.put(md5(first), first);
+        deltas.put(md5(second), second);
+        Payload third = payload("{\"hosts\":[],\"port\":1}");
+        deltas.put(md5(third), third);
+        assertFalse(deltas.get(md5(first), md5(second)).isPresent());
+        assertTrue(deltas.get(md5(second), md5(third)).isPresent());
+    }
+
+    @Test
+    public void nothing_is_kept_when_disabled() {
+        PayloadDeltas deltas = new PayloadDeltas(0);
+        deltas.put(md5(first), first);
+        deltas.put(md5(second), second);
+        assertFalse(deltas.get(md5(first), md5(second)).isPresent());
+    }
+
+    private static Payload payload(String json) {
+        return Payload.from(ConfigPayload.fromString(json));
+    }
+
+    private static String md5(Payload payload) {
+        return ConfigUtils.getMd5(payload.getData());
+    }
+
+}
@@ -345,11 +345,23 @@ public class StateHandler extends AbstractRequestHandler {
                 return;
             }
             if (this.val == null) {
-                this.val = val;
+                this.val = copyOf(val); // snapshots may be shared, so their values must not be modified
             } else {
                 this.val.add(val);
             }
         }
+
+        private static MetricValue copyOf(MetricValue val) {
+            if (val instanceof CountMetric) {
+                return CountMetric.newInstance(((CountMetric)val).getCount());
+            }
+            if (val instanceof GaugeMetric) {
+                GaugeMetric gauge = (GaugeMetric)val;
+                return GaugeMetric.newInstance(gauge.getLast(), gauge.getMax(), gauge.getMin(), gauge.getSum(),
+                                               gauge.getCount(), gauge.getPercentiles());
+            }
+            return val;
+        }
     }
 
 }
@@ -104,7 +104,7 @@ public class ProtobufSerialization {
             builder.setGeoLocation(ranking.getLocation().backendString());
         }
 
-        var featureMap = ranking.getFeatures().asMap();
+        var featureMap = ranking.getFeatures().asReadOnlyMap();
         MapConverter.convertMapPrimitives(featureMap, builder::addFeatureOverrides);
         MapConverter.convertMapTensors(featureMap, builder::addTensorFeatureOverrides);
         mergeRankProperties(ranking, builder::addRankProperties, builder::addTensorRankProperties);
@@ -166,7 +166,7 @@ public class ProtobufSerialization {
 
     private static void mergeQueryDataToDocsumRequest(Query query, SearchProtocol.DocsumRequest.Builder builder) {
         var ranking = query.getRanking();
-        var featureMap = ranking.getFeatures().asMap();
+        var featureMap = ranking.getFeatures().asReadOnlyMap();
 
         builder.setQueryTreeBlob(serializeQueryTree(query.getModel().getQueryTree()));
 
@@ -281,7 +281,7 @@ public class ProtobufSerialization {
     private static void mergeRankProperties(Ranking ranking,
                                             Consumer<StringProperty.Builder> stringProperties,
                                             Consumer<TensorProperty.Builder> tensorProperties) {
-        MapConverter.convertMultiMap(ranking.getProperties().asMap(), propB -> {
+        MapConverter.convertMultiMap(ranking.getProperties().asReadOnlyMap(), propB -> {
             if (!GetDocSumsPacket.sessionIdKey.equals(propB.getName())) {
                 stringProperties.accept(propB);
             }
@@ -326,29 +326,43 @@ public class GroupingExecutor extends Searcher {
      * @return A map of merged grouping objects.
      */
     private Map<Integer, Grouping> mergeGroupingResults(Result result) {
-        Map<Integer, Grouping> ret = new HashMap<>();
+        Map<Integer, List<Grouping>> partialResults = new HashMap<>();
         for (Iterator<Hit> i = result.hits().unorderedIterator(); i.hasNext(); ) {
             Hit hit = i.next();
             if (hit instanceof GroupingListHit) {
                 ContextInjector injector = new ContextInjector(hit);
                 for (Grouping grp : ((GroupingListHit)hit).getGroupingList()) {
                     grp.select(injector, injector);
-                    Grouping old = ret.get(grp.getId());
-                    if (old != null) {
-                        old.merge(grp);
-                    } else {
-                        ret.put(grp.getId(), grp);
-                    }
+                    partialResults.computeIfAbsent(grp.getId(), id -> new ArrayList<>()).add(grp);
                 }
                 i.remove();
             }
         }
-        for (Grouping grouping : ret.values()) {
+        Map<Integer, Grouping> ret = new HashMap<>();
+        for (Map.Entry<Integer, List<Grouping>> entry : partialResults.entrySet()) {
+            Grouping grouping = mergePairwise(entry.getValue());
             grouping.postMerge();
+            ret.put(entry.getKey(), grouping);
         }
         return ret;
     }
 
+    /**
+     * Merges the given groupings into the first one as a balanced tree of pairwise merges, such that
+     * each group is merged a logarithmic rather than linear number of times in the number of groupings.
+     *
+     * @param groupings The groupings to merge, in the order they were received.
+     * @return The first grouping, into which all others have been merged.
+     */
+    private static Grouping mergePairwise(List<Grouping> groupings) {
+        for (int step = 1; step < groupings.size(); step *= 2) {
+            for (int i = 0; i + step < groupings.size(); i += 2 * step) {
+                groupings.get(i).merge(groupings.get(i + step));
+            }
+        }
+        return groupings.get(0);
+    }
+
     /**
      * Returns the list of {@link Grouping} objects assigned to the given query. If no list has been assigned, this
      * method returns an empty list.
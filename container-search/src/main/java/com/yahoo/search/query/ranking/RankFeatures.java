@@ -7,6 +7,7 @@ import com.yahoo.text.JSON;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,7 +21,13 @@ import java.util.OptionalDouble;
  */
 public class RankFeatures implements Cloneable {
 
-    private final Map<String, Object> features;
+    private Map<String, Object> features;
+
+    /** True if the features map may be shared with clones of this, such that it must be copied before modification */
+    private boolean shared = false;
+
+    /** True if the features map is exposed through asMap, such that it must be copied on cloning */
+    private boolean exposed = false;
 
     public RankFeatures() {
         this(new LinkedHashMap<>());
@@ -30,14 +37,22 @@ public class RankFeatures implements Cloneable {
         this.features = features;
     }
 
+    private Map<String, Object> writableFeatures() {
+        if (shared) {
+            features = new LinkedHashMap<>(features);
+            shared = false;
+        }
+        return features;
+    }
+
     /** Sets a double rank feature */
     public void put(String name, double value) {
-        features.put(name, value);
+        writableFeatures().put(name, value);
     }
 
     /** Sets a tensor rank feature */
     public void put(String name, Tensor value) {
-        features.put(name, value);
+        writableFeatures().put(name, value);
     }
 
     /**
@@ -47,7 +62,7 @@ public class RankFeatures implements Cloneable {
      */
     @Deprecated // TODO: Remove on Vespa 8
     public void put(String name, String value) {
-        features.put(name, value);
+        writableFeatures().put(name, value);
     }
 
     /**
@@ -96,7 +111,18 @@ public class RankFeatures implements Cloneable {
      * Returns the map holding the features of this.
      * This map may be modified to change the rank features of the query.
      */
-    public Map<String, Object> asMap() { return features; }
+    public Map<String, Object> asMap() {
+        exposed = true;
+        return writableFeatures();
+    }
+
+    /**
+     * Returns an unmodifiable view of the features of this, for reading them without the cost of
+     * exposing them through asMap.
+     */
+    public Map<String, Object> asReadOnlyMap() {
+        return Collections.unmodifiableMap(features);
+    }
 
     public boolean isEmpty() {
         return features.isEmpty();
@@ -125,7 +151,7 @@ public class RankFeatures implements Cloneable {
             }
         }
         for (int i = 0; i < featuresToRemove.size(); ++i) {
-            rankProperties.put(propertiesToInsert.get(i), features.remove(featuresToRemove.get(i)));
+            rankProperties.put(propertiesToInsert.get(i), writableFeatures().remove(featuresToRemove.get(i)));
         }
     }
 
@@ -148,7 +174,14 @@ public class RankFeatures implements Cloneable {
 
     @Override
     public RankFeatures clone() {
-        return new RankFeatures(new LinkedHashMap<>(features));
+        if (exposed) // the map may be modified directly by a holder of it
+            return new RankFeatures(new LinkedHashMap<>(features));
+
+        // Share the features until either this or the clone is modified
+        shared = true;
+        RankFeatures clone = new RankFeatures(features);
+        clone.shared = true;
+        return clone;
     }
 
     @Override
@@ -22,6 +22,12 @@ public class RankProperties implements Cloneable {
 
     private Map<String, List<Object>> properties;
 
+    /** True if the properties map may be shared with clones of this, such that it must be copied before modification */
+    private boolean shared = false;
+
+    /** True if the properties map is exposed through asMap, such that it must be copied on cloning */
+    private boolean exposed = false;
+
     public RankProperties() {
         this(new LinkedHashMap<>());
     }
@@ -30,12 +36,28 @@ public class RankProperties implements Cloneable {
         this.properties = properties;
     }
 
+    private Map<String, List<Object>> writableProperties() {
+        if (shared) {
+            properties = deepCopy(properties);
+            shared = false;
+        }
+        return properties;
+    }
+
+    private static Map<String, List<Object>> deepCopy(Map<String, List<Object>> properties) {
+        Map<String, List<Object>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Object>> entry : properties.entrySet())
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        return copy;
+    }
+
     public void put(String name, String value) {
         put(name, (Object)value);
     }
 
     /** Adds a property by full name to a value */
     public void put(String name, Object value) {
+        Map<String, List<Object>> properties = writableProperties();
         List<Object> list = properties.get(name);
         if (list == null) {
             list = new ArrayList<>();
@@ -63,7 +85,7 @@ public class RankProperties implements Cloneable {
 
     /** Removes all properties properties for a given name */
     public void remove(String name) {
-        properties.remove(name);
+        writableProperties().remove(name);
     }
 
     public boolean isEmpty() {
@@ -71,7 +93,18 @@ public class RankProperties implements Cloneable {
     }
 
     /** Returns a modifiable map of the properties of this */
-    public Map<String, List<Object>> asMap() { return properties; }
+    public Map<String, List<Object>> asMap() {
+        exposed = true;
+        return writableProperties();
+    }
+
+    /**
+     * Returns an unmodifiable view of the properties of this, for reading them without the cost of
+     * exposing them through asMap. The value lists must not be modified.
+     */
+    public Map<String, List<Object>> asReadOnlyMap() {
+        return Collections.unmodifiableMap(properties);
+    }
 
     /** Encodes this in a binary internal representation and returns the number of property maps encoded (0 or 1) */
     public int encode(ByteBuffer buffer, boolean encodeQueryData) {
@@ -100,10 +133,14 @@ public class RankProperties implements Cloneable {
 
     @Override
     public RankProperties clone() {
-        Map<String, List<Object>> clone = new LinkedHashMap<>();
-        for (Map.Entry<String, List<Object>> entry : properties.entrySet())
-            clone.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-        return new RankProperties(clone);
+        if (exposed) // the map and its lists may be modified directly by a holder of it
+            return new RankProperties(deepCopy(properties));
+
+        // Share the properties until either this or the clone is modified
+        shared = true;
+        RankProperties clone = new RankProperties(properties);
+        clone.shared = true;
+        return clone;
     }
 
     @Override
@@ -146,19 +146,6 @@ public class AsyncExecution {
 
     }
 
-    private static <T> Future<T> getFuture(Callable<T> callable) {
-        FutureTask<T> future = new FutureTask<>(callable);
-        getExecutor().execute(future);
-        return future;
-    }
-
-    private static Future<Void> runTask(Runnable runnable) {
-        return getFuture(() -> {
-            runnable.run();
-            return null;
-        });
-    }
-
     private FutureResult getFutureResult(Callable<Result> callable, Query query) {
         FutureResult future = new FutureResult(callable, execution, query);
         getExecutor().execute(future);
@@ -176,11 +163,12 @@ public class AsyncExecution {
     public static List<Result> waitForAll(Collection<FutureResult> tasks, long timeoutMs) {
         // Copy the list in case it is modified while we are waiting
         List<FutureResult> workingTasks = new ArrayList<>(tasks);
+        // Wait in the calling thread for the completion of all tasks, rather than parking another thread on them
+        CompletableFuture<?>[] completions = new CompletableFuture<?>[workingTasks.size()];
+        for (int i = 0; i < completions.length; i++)
+            completions[i] = workingTasks.get(i).completionStage().toCompletableFuture();
         try {
-            runTask(() -> {
-                for (FutureResult task : workingTasks)
-                    task.get();
-            }).get(timeoutMs, TimeUnit.MILLISECONDS);
+            CompletableFuture.allOf(completions).get(timeoutMs, TimeUnit.MILLISECONDS);
         } catch (TimeoutException | InterruptedException | ExecutionException e) {
             // Handle timeouts below
         }
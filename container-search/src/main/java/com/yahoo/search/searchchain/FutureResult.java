@@ -8,6 +8,8 @@ import com.yahoo.yolean.Exceptions;
 
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -16,7 +18,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Extends a {@code FutureTask&lt;Result&gt;}, with some added error handling
+ * Extends a {@code FutureTask&lt;Result&gt;}, with some added error handling.
+ * The result can also be consumed without blocking through {@link #completionStage()}.
  * 
  * @author bratseth
  */
@@ -27,6 +30,12 @@ public class FutureResult extends FutureTask<Result> {
     /** Only used for generating messages */
     private final Execution execution;
 
+    /** Completed with the result of this when the task is done */
+    private final CompletableFuture<Result> completion = new CompletableFuture<>();
+
+    /** The result produced from an execution error, created once such that the error is only logged once */
+    private Result executionErrorResult = null;
+
     private final static Logger log = Logger.getLogger(FutureResult.class.getName());
 
     public FutureResult(Callable<Result> callable, Execution execution, Query query) {
@@ -48,7 +57,7 @@ public class FutureResult extends FutureTask<Result> {
             return new Result(getQuery(), createInterruptedError(e));
         }
         catch (ExecutionException e) {
-            return new Result(getQuery(), createExecutionError(e));
+            return executionErrorResult(e);
         }
     }
 
@@ -78,13 +87,42 @@ public class FutureResult extends FutureTask<Result> {
             // allow searchers to explicitly signal timeout rather than actually time out (useful for testing)
             if (e.getCause() instanceof com.yahoo.search.federation.TimeoutException)
                 return Optional.empty();
-            return Optional.of(new Result(getQuery(), createExecutionError(e)));
+            return Optional.of(executionErrorResult(e));
         }
         catch (TimeoutException e) {
             return Optional.empty();
         }
     }
 
+    /**
+     * Returns a stage which is completed with the result of this when it is done, without
+     * blocking any thread while waiting. Errors are returned as results containing the error,
+     * as with {@link #get()}. If this is cancelled, the stage completes with a timeout error result.
+     */
+    public CompletionStage<Result> completionStage() {
+        return completion.minimalCompletionStage();
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            completion.complete(new Result(getQuery(), createTimeoutError()));
+            return;
+        }
+        try {
+            completion.complete(super.get());
+        }
+        catch (InterruptedException e) { // Not possible when done
+            completion.complete(new Result(getQuery(), createInterruptedError(e)));
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof com.yahoo.search.federation.TimeoutException)
+                completion.complete(new Result(getQuery(), createTimeoutError()));
+            else
+                completion.complete(executionErrorResult(e));
+        }
+    }
+
     /** Returns the query used in this execution, never null */
     public Query getQuery() {
         return query;
@@ -95,6 +133,12 @@ public class FutureResult extends FutureTask<Result> {
                                                    Exceptions.toMessageString(e));
     }
     
+    private synchronized Result executionErrorResult(ExecutionException e) {
+        if (executionErrorResult == null)
+            executionErrorResult = new Result(getQuery(), createExecutionError(e));
+        return executionErrorResult;
+    }
+
     private ErrorMessage createExecutionError(ExecutionException e) {
         log.log(Level.WARNING,"Exception in " + execution + " of " + query, e.getCause());
         return ErrorMessage.createErrorInPluginSearcher("Error in '" + execution + "': " +
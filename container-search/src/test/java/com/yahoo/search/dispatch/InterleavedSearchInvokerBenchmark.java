@@ -0,0 +1,84 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.yahoo.document.GlobalId;
+import com.yahoo.document.idstring.IdString;
+import com.yahoo.prelude.fastsearch.FastHit;
+import com.yahoo.search.Query;
+import com.yahoo.search.dispatch.searchcluster.SearchCluster;
+import com.yahoo.search.result.Hit;
+import com.yahoo.search.result.Relevance;
+import com.yahoo.test.MicroBenchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Microbenchmark of merging the hits returned from content nodes in the interleaved search invoker,
+ * using a mock search cluster and invokers.
+ *
+ * @author bratseth
+ */
+public class InterleavedSearchInvokerBenchmark {
+
+    private static final Random random = new Random(1234);
+
+    private final MicroBenchmark benchmark;
+
+    public InterleavedSearchInvokerBenchmark(MicroBenchmark benchmark) {
+        this.benchmark = benchmark;
+    }
+
+    public void run() {
+        benchmark.printHeader("Operation");
+        benchmarkMerge(2, 10);
+        benchmarkMerge(4, 100);
+        benchmarkMerge(16, 100);
+        benchmarkMerge(16, 400);
+    }
+
+    private void benchmarkMerge(int nodeCount, int hitCount) {
+        SearchCluster cluster = new MockSearchCluster("!", 1, nodeCount);
+        List<List<Hit>> hitsPerNode = new ArrayList<>();
+        for (int node = 0; node < nodeCount; node++)
+            hitsPerNode.add(createHits(hitCount, node));
+        Query query = new Query("?query=test&hits=" + hitCount);
+        benchmark.run("merge " + hitCount + " hits from " + nodeCount + " nodes", () -> {
+            List<SearchInvoker> invokers = new ArrayList<>(nodeCount);
+            for (int node = 0; node < nodeCount; node++)
+                invokers.add(new MockInvoker(node).setHits(hitsPerNode.get(node)));
+            InterleavedSearchInvoker invoker = new InterleavedSearchInvoker(invokers, true, cluster, Collections.emptySet());
+            for (SearchInvoker nodeInvoker : invokers)
+                invoker.responseAvailable(nodeInvoker);
+            try {
+                return invoker.search(query, null).hits().size();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Returns hits from a content node, which are ordered by descending relevance */
+    private static List<Hit> createHits(int count, int distributionKey) {
+        List<Double> scores = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            scores.add(random.nextDouble());
+        scores.sort(Collections.reverseOrder());
+        List<Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] gid = new GlobalId(IdString.createIdString("id:test:test::" + distributionKey + "-" + i)).getRawId();
+            hits.add(new FastHit(gid, new Relevance(scores.get(i)), distributionKey, distributionKey));
+        }
+        return hits;
+    }
+
+    public static void main(String[] args) {
+        new InterleavedSearchInvokerBenchmark(MicroBenchmark.fromArguments(args)).run();
+    }
+
+}
@@ -0,0 +1,73 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch.rpc;
+
+import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.yahoo.document.GlobalId;
+import com.yahoo.document.idstring.IdString;
+import com.yahoo.prelude.fastsearch.FastHit;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.result.Coverage;
+import com.yahoo.search.result.Relevance;
+import com.yahoo.test.MicroBenchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Microbenchmark of converting search and docsum requests and search replies to and from protobuf.
+ *
+ * @author bratseth
+ */
+public class ProtobufSerializationBenchmark {
+
+    private final MicroBenchmark benchmark;
+
+    public ProtobufSerializationBenchmark(MicroBenchmark benchmark) {
+        this.benchmark = benchmark;
+    }
+
+    public void run() throws InvalidProtocolBufferException {
+        benchmark.printHeader("Operation");
+        Query query = new Query("?query=madonna+like+a+prayer&hits=100&ranking.profile=production" +
+                                "&ranking.features.query(year)=1989&ranking.properties.foo=bar&model.filter=%2Bgenre:pop");
+        benchmark.run("serialize search request", () -> ProtobufSerialization.serializeSearchRequest(query, 100, "server").length);
+
+        List<FastHit> hits = createHits(100);
+        benchmark.run("serialize docsum request for 100 hits", () -> {
+            var builder = ProtobufSerialization.createDocsumRequestBuilder(query, "server", "default", true);
+            return ProtobufSerialization.serializeDocsumRequest(builder, hits).length;
+        });
+
+        Result result = new Result(query);
+        result.setCoverage(new Coverage(100000, 100000, 1));
+        hits.forEach(hit -> result.hits().add(hit));
+        benchmark.run("serialize search reply with 100 hits", () -> ProtobufSerialization.serializeResult(result).length);
+
+        byte[] reply = ProtobufSerialization.serializeResult(result);
+        benchmark.run("deserialize search reply with 100 hits", () -> {
+            try {
+                SearchProtocol.SearchReply protobuf = SearchProtocol.SearchReply.parseFrom(reply);
+                return ProtobufSerialization.convertToResult(query, protobuf, null, 0, 0).getLeanHits().size();
+            }
+            catch (InvalidProtocolBufferException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static List<FastHit> createHits(int count) {
+        List<FastHit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] gid = new GlobalId(IdString.createIdString("id:test:test::" + i)).getRawId();
+            hits.add(new FastHit(gid, new Relevance(count - i), 0, 0));
+        }
+        return hits;
+    }
+
+    public static void main(String[] args) throws InvalidProtocolBufferException {
+        new ProtobufSerializationBenchmark(MicroBenchmark.fromArguments(args)).run();
+    }
+
+}
@@ -205,6 +205,59 @@ public class GroupingExecutorTestCase {
         assertEquals(9L, hit.getField("max(bar)"));
     }
 
+    @Test
+    public void requireThatResultsFromManyNodesAreMergedAsWhenFolded() {
+        assertMergedAsWhenFolded(3, 6);
+        assertMergedAsWhenFolded(5, 9);
+    }
+
+    private static void assertMergedAsWhenFolded(int nodeCount, int expectedGroupCount) {
+        Query query = newQuery();
+        GroupingRequest req = GroupingRequest.newInstance(query);
+        GroupingOperation operation = GroupingOperation.fromString("all(group(foo) each(output(min(bar), max(bar))))");
+        setForceSinglePass(operation);
+        req.setRootOperation(operation);
+
+        // Group "common" is returned by all nodes, "shared" groups by pairs of nodes and "unique" groups by one node each
+        List<GroupingListHit> hits = new ArrayList<>();
+        Grouping expected = null;
+        for (int node = 0; node < nodeCount; node++) {
+            com.yahoo.searchlib.aggregation.Group root = new com.yahoo.searchlib.aggregation.Group();
+            for (String id : Arrays.asList("common", "shared" + (node / 2), "unique" + node)) {
+                root.addChild(new com.yahoo.searchlib.aggregation.Group()
+                                      .setId(new StringResultNode(id))
+                                      .addAggregationResult(new MinAggregationResult().setMin(new IntegerResultNode(node * 10 + id.length())).setTag(3))
+                                      .addAggregationResult(new MaxAggregationResult().setMax(new IntegerResultNode(node * 20 + id.length())).setTag(4)));
+            }
+            Grouping grouping = new Grouping(0).setFirstLevel(0).setLastLevel(1).setRoot(root);
+            hits.add(new GroupingListHit(Arrays.asList(grouping.clone()), null));
+            if (expected == null)
+                expected = grouping;
+            else
+                expected.merge(grouping);
+        }
+        expected.postMerge();
+
+        Execution exec = newExecution(new GroupingExecutor(), new ContentNodeResultProvider(hits));
+        Group grp = req.getResultGroup(exec.search(query));
+        assertEquals(1, grp.size());
+        GroupList lst = (GroupList)grp.get(0);
+        assertEquals(expectedGroupCount, expected.getRoot().getChildren().size());
+        assertEquals(expectedGroupCount, lst.size());
+        for (com.yahoo.searchlib.aggregation.Group expectedGroup : expected.getRoot().getChildren()) {
+            Hit hit = lst.get("group:string:" + expectedGroup.getId().getString());
+            assertNotNull(hit);
+            assertEquals(((MinAggregationResult)expectedGroup.getAggregationResults().get(0)).getMin().getInteger(), hit.getField("min(bar)"));
+            assertEquals(((MaxAggregationResult)expectedGroup.getAggregationResults().get(1)).getMax().getInteger(), hit.getField("max(bar)"));
+        }
+    }
+
+    private static void setForceSinglePass(GroupingOperation operation) {
+        operation.setForceSinglePass(true);
+        for (GroupingOperation child : operation.getChildren())
+            setForceSinglePass(child);
+    }
+
     @Test
     public void requireThatUnexpectedGroupingResultsAreIgnored() {
         Query query = newQuery();
@@ -755,6 +808,23 @@ public class GroupingExecutorTestCase {
         }
     }
 
+    /** Returns the groupings of all the given content nodes in a single result, as the dispatcher does */
+    private static class ContentNodeResultProvider extends Searcher {
+
+        final List<GroupingListHit> hits;
+
+        ContentNodeResultProvider(List<GroupingListHit> hits) {
+            this.hits = hits;
+        }
+
+        @Override
+        public Result search(Query query, Execution exec) {
+            Result res = exec.search(query);
+            hits.forEach(hit -> res.hits().add(hit));
+            return res;
+        }
+    }
+
     private static class FillErrorProvider extends Searcher {
 
         @Override
@@ -18,6 +18,8 @@ import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 /**
  * @author geirst
@@ -33,6 +35,66 @@ public class RankFeaturesTestCase {
         assertEquals("b", p.get("string").get(0));
     }
 
+    @Test
+    public void requireThatClonesAreIndependent() {
+        RankFeatures features = new RankFeatures();
+        features.put("query(a)", 1.0);
+        RankFeatures featuresClone = features.clone();
+        featuresClone.put("query(b)", 2.0);
+        features.put("query(a)", 3.0);
+        assertEquals(Map.of("query(a)", 3.0), features.asMap());
+        assertEquals(Map.of("query(a)", 1.0, "query(b)", 2.0), featuresClone.asMap());
+
+        Map<String, Object> exposed = features.asMap();
+        RankFeatures cloneOfExposed = features.clone();
+        exposed.put("query(c)", 4.0);
+        assertEquals(Map.of("query(a)", 3.0), cloneOfExposed.asMap());
+
+        RankProperties properties = new RankProperties();
+        properties.put("a", "1");
+        RankProperties propertiesClone = properties.clone();
+        propertiesClone.put("a", "2");
+        properties.put("b", "3");
+        assertEquals(List.of("1"), properties.get("a"));
+        assertEquals(List.of("3"), properties.get("b"));
+        assertEquals(List.of("1", "2"), propertiesClone.get("a"));
+        assertNull(propertiesClone.get("b"));
+
+        properties.asMap().get("a").add("4");
+        RankProperties cloneOfExposedProperties = properties.clone();
+        properties.asMap().get("a").add("5");
+        assertEquals(List.of("1", "4"), cloneOfExposedProperties.get("a"));
+    }
+
+    @Test
+    public void requireThatReadOnlyMapsAreNotExposed() {
+        RankFeatures features = new RankFeatures();
+        features.put("query(a)", 1.0);
+        assertEquals(Map.of("query(a)", 1.0), features.asReadOnlyMap());
+        RankFeatures featuresClone = features.clone();
+        featuresClone.put("query(a)", 2.0);
+        assertEquals(Map.of("query(a)", 1.0), features.asReadOnlyMap());
+        assertEquals(Map.of("query(a)", 2.0), featuresClone.asReadOnlyMap());
+        try {
+            features.asReadOnlyMap().put("query(b)", 3.0);
+            fail("Expected the map to be unmodifiable");
+        }
+        catch (UnsupportedOperationException expected) { }
+
+        RankProperties properties = new RankProperties();
+        properties.put("a", "1");
+        assertEquals(Map.of("a", List.of("1")), properties.asReadOnlyMap());
+        RankProperties propertiesClone = properties.clone();
+        propertiesClone.put("a", "2");
+        assertEquals(Map.of("a", List.of("1")), properties.asReadOnlyMap());
+        assertEquals(Map.of("a", List.of("1", "2")), propertiesClone.asReadOnlyMap());
+        try {
+            properties.asReadOnlyMap().remove("a");
+            fail("Expected the map to be unmodifiable");
+        }
+        catch (UnsupportedOperationException expected) { }
+    }
+
     @Test
     @SuppressWarnings("deprecation")
     public void requireThatRankFeaturesUsingDoubleAndDoubleToStringEncodeTheSameWay() {
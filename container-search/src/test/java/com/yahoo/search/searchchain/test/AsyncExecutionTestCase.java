@@ -20,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -98,6 +99,27 @@ public class AsyncExecutionTestCase {
         assertNull(results.get(1).hits().getErrorHit());
     }
 
+    @Test
+    public void testCompletionStage() throws Exception {
+        Chain<Searcher> chain = new Chain<>(new ComponentId("chain"), new ResultProducingSearcher());
+        FutureResult future = new AsyncExecution(chain, Execution.Context.createContextStub()).search(new Query("?query=test"));
+        Result result = future.completionStage().toCompletableFuture().get(60, TimeUnit.SECONDS);
+        assertEquals("hello", result.hits().get(0).getField("test"));
+        assertSame(result, future.get());
+    }
+
+    @Test
+    public void testCompletionStageOfFailingSearch() throws Exception {
+        Chain<Searcher> chain = new Chain<>(new ComponentId("chain"), new Searcher() {
+            @Override
+            public Result search(Query query, Execution execution) { throw new IllegalStateException("failing"); }
+        });
+        FutureResult future = new AsyncExecution(chain, Execution.Context.createContextStub()).search(new Query("?query=test"));
+        Result result = future.completionStage().toCompletableFuture().get(60, TimeUnit.SECONDS);
+        assertNotNull(result.hits().getError());
+        assertSame(result, future.get());
+    }
+
     @Test
     public void testSync() {
         Query query=new Query("?query=test");
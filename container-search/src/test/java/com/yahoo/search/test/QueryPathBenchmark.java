@@ -0,0 +1,138 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.test;
+
+import com.yahoo.container.jdisc.HttpRequest;
+import com.yahoo.jdisc.http.HttpRequest.Method;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.query.parser.Parsable;
+import com.yahoo.search.query.parser.Parser;
+import com.yahoo.search.query.parser.ParserEnvironment;
+import com.yahoo.search.query.parser.ParserFactory;
+import com.yahoo.search.query.profile.QueryProfile;
+import com.yahoo.search.query.profile.QueryProfileRegistry;
+import com.yahoo.search.query.profile.compiled.CompiledQueryProfile;
+import com.yahoo.search.rendering.JsonRenderer;
+import com.yahoo.search.result.Hit;
+import com.yahoo.search.result.HitGroup;
+import com.yahoo.search.searchchain.Execution;
+import com.yahoo.search.yql.YqlParser;
+import com.yahoo.test.MicroBenchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Microbenchmarks of the parts of the query path which runs in the container:
+ * Query parsing, query construction, hit sorting and result rendering.
+ *
+ * @author bratseth
+ */
+public class QueryPathBenchmark {
+
+    private static final Random random = new Random(1234);
+
+    private final MicroBenchmark benchmark;
+
+    public QueryPathBenchmark(MicroBenchmark benchmark) {
+        this.benchmark = benchmark;
+    }
+
+    public void run() {
+        benchmark.printHeader("Operation");
+        benchmarkParsing();
+        benchmarkQueryConstruction();
+        benchmarkSorting(1000);
+        benchmarkRendering(10);
+        benchmarkRendering(1000);
+    }
+
+    private void benchmarkParsing() {
+        YqlParser yqlParser = new YqlParser(new ParserEnvironment());
+        String yql = "select * from sources * where (title contains \"madonna\" or body contains \"madonna\") and " +
+                     "year > 1980 and weakAnd(default contains \"like\", default contains \"a\", default contains \"prayer\") " +
+                     "order by year desc limit 20;";
+        benchmark.run("parse yql", () -> System.identityHashCode(yqlParser.parse(new Parsable().setQuery(yql))));
+
+        Parser allParser = ParserFactory.newInstance(Query.Type.ALL, new ParserEnvironment());
+        String query = "title:madonna \"like a prayer\" -body:remix year:>1980 (pop rock) +album:\"true blue\"";
+        benchmark.run("parse all", () -> System.identityHashCode(allParser.parse(new Parsable().setQuery(query))));
+    }
+
+    private void benchmarkQueryConstruction() {
+        QueryProfileRegistry registry = new QueryProfileRegistry();
+        QueryProfile profile = new QueryProfile("default");
+        profile.set("hits", "20", registry);
+        profile.set("ranking.profile", "production", registry);
+        profile.set("ranking.features.query(weight)", "0.5", registry);
+        profile.set("presentation.summary", "short", registry);
+        profile.set("model.defaultIndex", "title", registry);
+        for (int i = 0; i < 20; i++)
+            profile.set("custom.property" + i, "value" + i, registry);
+        registry.register(profile);
+        CompiledQueryProfile compiled = registry.compile().getComponent("default");
+        String uri = "?query=madonna+like+a+prayer&timeout=500ms&ranking.features.query(year)=1989&custom.property3=override";
+        benchmark.run("create query with profile",
+                      () -> new Query(HttpRequest.createTestRequest(uri, Method.GET), compiled).getHits());
+    }
+
+    private void benchmarkSorting(int hitCount) {
+        List<Hit> hits = createHits(hitCount);
+        benchmark.run("sort " + hitCount + " hits", () -> {
+            HitGroup group = new HitGroup();
+            for (Hit hit : hits)
+                group.add(hit);
+            group.sort();
+            return group.get(0).hashCode();
+        });
+    }
+
+    /** Note that rendering happens in the renderer's executor, so its allocations are not included in the output */
+    private void benchmarkRendering(int hitCount) {
+        JsonRenderer prototype = new JsonRenderer();
+        Query query = new Query("?query=madonna");
+        List<Hit> hits = createHits(hitCount);
+        benchmark.run("render " + hitCount + " hits as json", () -> {
+            try {
+                // A result is rendered only once, so a new one is needed for each iteration
+                Result result = new Result(query);
+                for (Hit hit : hits)
+                    result.hits().add(hit);
+                result.setTotalHitCount(hitCount);
+
+                // Renderers are cloned from the prototype for each response, as in the container
+                JsonRenderer renderer = (JsonRenderer)prototype.clone();
+                renderer.init();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                renderer.render(out, result, new Execution(Execution.Context.createContextStub()), null).get();
+                return out.size();
+            }
+            catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        prototype.deconstruct();
+    }
+
+    private static List<Hit> createHits(int count) {
+        List<Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Hit hit = new Hit("hit" + i, random.nextDouble());
+            hit.setField("title", "Title of hit " + i);
+            hit.setField("body", "A somewhat longer body text of hit number " + i + " with some more words in it");
+            hit.setField("year", 1950 + random.nextInt(70));
+            hit.setField("popularity", random.nextDouble());
+            hit.setField("url", "http://example.com/document/" + i);
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    public static void main(String[] args) {
+        new QueryPathBenchmark(MicroBenchmark.fromArguments(args)).run();
+    }
+
+}
@@ -14,6 +14,7 @@ import com.yahoo.concurrent.SystemTimer;
 import com.yahoo.statistics.Counter;
 import com.yahoo.statistics.Statistics;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -159,13 +160,45 @@ public class Call implements Cloneable {
             long startTime = SystemTimer.INSTANCE.milliTime();
             DocumentProcessor.Progress retval = processor.process(processing);
             incrementProcTime(SystemTimer.INSTANCE.milliTime() - startTime);
-            incrementDocs(numDocs);
+            if ( ! DocumentProcessor.Progress.LATER.equals(retval)) // otherwise counted when called again
+                incrementDocs(numDocs);
             return retval;
         } finally {
             unwrapSchemaMapping(processing);
         }
     }
 
+    /**
+     * Calls the document processor of this with a batch of processings.
+     *
+     * @return the progress of each of the given processings, in the same order
+     * @throws IllegalStateException if the processor does not return one progress per processing
+     */
+    public List<DocumentProcessor.Progress> call(List<Processing> processings) {
+        try {
+            int[] numDocs = new int[processings.size()];
+            for (int i = 0; i < processings.size(); i++) {
+                numDocs[i] = processings.get(i).getDocumentOperations().size();
+                schemaMapProcessing(processings.get(i));
+            }
+            long startTime = SystemTimer.INSTANCE.milliTime();
+            List<DocumentProcessor.Progress> retval = processor.process(Collections.unmodifiableList(processings));
+            incrementProcTime(SystemTimer.INSTANCE.milliTime() - startTime);
+            if (retval.size() != processings.size())
+                throw new IllegalStateException(this + " returned " + retval.size() + " progresses for a batch of " +
+                                                processings.size() + " processings");
+            long doneDocs = 0;
+            for (int i = 0; i < processings.size(); i++)
+                if ( ! DocumentProcessor.Progress.LATER.equals(retval.get(i))) // otherwise counted when called again
+                    doneDocs += numDocs[i];
+            incrementDocs(doneDocs);
+            return retval;
+        } finally {
+            for (Processing processing : processings)
+                unwrapSchemaMapping(processing);
+        }
+    }
+
     public String toString() {
         return "call to class " + processor.getClass().getName() + " (id: " + getDocumentProcessorId() + ")";
     }
@@ -8,7 +8,9 @@ import com.yahoo.jdisc.Metric;
 import com.yahoo.statistics.Counter;
 import com.yahoo.text.Utf8;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -104,8 +106,7 @@ public class DocprocExecutor {
         }
 
         DocumentProcessor.Progress progress = DocumentProcessor.Progress.DONE;
-        //metrics stuff:
-        //TODO: Note that this is *wrong* in case of Progress.LATER, documents are then counted several times until the Processing is DONE or FAILED.
+        // Counts the documents of the processing the first time only, not again when it is processed after LATER
         incrementNumDocsProcessed(processing);
         do {
             Call call = processing.callStack().pop();
@@ -130,6 +131,77 @@ public class DocprocExecutor {
         return progress;
     }
 
+    /**
+     * Processes the given processings through the CallStack of this executor as a batch: Each document processor
+     * is called once with all the processings which have arrived at it, rather than once per processing.
+     * A processing which returns anything but DONE leaves the batch.
+     *
+     * @param processings the processings to process. The CallStack of each processing will be set to a clone of the
+     *                    CallStack of this executor, iff. it is currently null.
+     * @return the progress of each of the given processings, in the same order. If a progress is LATER, that
+     *         processing is not done and must be reprocessed later.
+     * @throws RuntimeException if a document processor throws an exception during processing.
+     */
+    public List<DocumentProcessor.Progress> process(List<Processing> processings) {
+        List<DocumentProcessor.Progress> progress = new ArrayList<>(processings.size());
+        List<Integer> active = new ArrayList<>(processings.size());
+        for (int i = 0; i < processings.size(); i++) {
+            Processing processing = processings.get(i);
+            processing.setServiceName(getName());
+            if (processing.callStack() == null) {
+                processing.setCallStack(new CallStack(getCallStack()));
+            }
+            incrementNumDocsProcessed(processing);
+            progress.add(DocumentProcessor.Progress.DONE);
+            active.add(i);
+        }
+
+        while ( ! active.isEmpty()) {
+            // Collect the active processings which are at the same processor as the first one
+            DocumentProcessor processor = null;
+            List<Integer> batch = new ArrayList<>(active.size());
+            List<Processing> batchProcessings = new ArrayList<>(active.size());
+            for (Iterator<Integer> i = active.iterator(); i.hasNext(); ) {
+                int index = i.next();
+                Call next = processings.get(index).callStack().peek();
+                if (next == null) { // No more processors - done
+                    i.remove();
+                    continue;
+                }
+                if (processor == null)
+                    processor = next.getDocumentProcessor();
+                if (next.getDocumentProcessor() == processor) {
+                    batch.add(index);
+                    batchProcessings.add(processings.get(index));
+                }
+            }
+            if (batch.isEmpty()) break;
+
+            Call call = null;
+            for (Processing processing : batchProcessings)
+                call = processing.callStack().pop();
+            //might throw exception, which is OK:
+            List<DocumentProcessor.Progress> batchProgress = call.call(batchProcessings);
+
+            for (int i = 0; i < batch.size(); i++) {
+                int index = batch.get(i);
+                Processing processing = processings.get(index);
+                DocumentProcessor.Progress processingProgress = batchProgress.get(i);
+                if (log.isLoggable(Level.FINEST)) {
+                    logProgress(processing, processingProgress, processing.callStack().getLastPopped());
+                }
+                progress.set(index, processingProgress);
+                if ( ! DocumentProcessor.Progress.DONE.equals(processingProgress)) {
+                    if (DocumentProcessor.Progress.LATER.equals(processingProgress)) {
+                        processing.callStack().addNext(processing.callStack().getLastPopped());
+                    }
+                    active.remove(Integer.valueOf(index));
+                }
+            }
+        }
+        return progress;
+    }
+
     private void logProgress(Processing processing, DocumentProcessor.Progress progress, Call call) {
         StringBuilder message = new StringBuilder();
         boolean first = true;
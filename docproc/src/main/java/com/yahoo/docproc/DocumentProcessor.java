@@ -4,7 +4,9 @@ package com.yahoo.docproc;
 import com.yahoo.collections.Pair;
 import com.yahoo.component.chain.ChainedComponent;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -70,6 +72,21 @@ public abstract class DocumentProcessor extends ChainedComponent {
      */
     public abstract Progress process(Processing processing);
 
+    /**
+     * Processes a batch of processings which have all arrived at this processor. Processors which can do their
+     * work more efficiently for many documents at once, e.g. by calling an external service once per batch,
+     * may override this. The default implementation processes each processing in turn.
+     *
+     * @param processings the processings to process. The list itself must not be modified
+     * @return the outcome of each of the given processings, in the same order
+     */
+    public List<Progress> process(List<Processing> processings) {
+        List<Progress> progress = new ArrayList<>(processings.size());
+        for (Processing processing : processings)
+            progress.add(process(processing));
+        return progress;
+    }
+
     public String toString() {
         return "processor " + getId().stringValue();
     }
@@ -0,0 +1,122 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc.jdisc;
+
+import com.yahoo.docproc.DocprocService;
+import com.yahoo.docproc.DocumentProcessor;
+import com.yahoo.docproc.Processing;
+import com.yahoo.yolean.Exceptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Processes the processings of a batch of requests together, such that each document processor is called once
+ * with the processings of all the requests, and then replies to each request according to the outcome of its own
+ * processings. A request with a processing returning LATER continues in its own {@link DocumentProcessingTask}.
+ *
+ * @author bratseth
+ */
+class DocumentProcessingBatchTask implements Runnable {
+
+    private static final Logger log = Logger.getLogger(DocumentProcessingBatchTask.class.getName());
+
+    private final List<RequestContext> requestContexts;
+    private final DocumentProcessingHandler docprocHandler;
+    private final DocprocService service;
+
+    DocumentProcessingBatchTask(List<RequestContext> requestContexts, DocumentProcessingHandler docprocHandler,
+                                DocprocService service) {
+        this.requestContexts = requestContexts;
+        this.docprocHandler = docprocHandler;
+        this.service = service;
+    }
+
+    @Override
+    public void run() {
+        try {
+            List<RequestContext> requests = new ArrayList<>(requestContexts.size());
+            List<List<Processing>> processingsPerRequest = new ArrayList<>(requestContexts.size());
+            List<Processing> processings = new ArrayList<>();
+            for (RequestContext requestContext : requestContexts) {
+                List<Processing> requestProcessings;
+                try {
+                    requestProcessings = requestContext.getProcessings();
+                } catch (Exception e) {
+                    //deserialization failed:
+                    log.log(Level.WARNING, "Deserialization of message failed.", e);
+                    requestContext.processingFailed(e);
+                    continue;
+                }
+                if (requestContext.hasExpired()) {
+                    log.log(Level.FINE, "Time is up for '" + requestContext + "'.");
+                    requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE, "Time is up.");
+                    continue;
+                }
+                requests.add(requestContext);
+                processingsPerRequest.add(requestProcessings);
+                processings.addAll(requestProcessings);
+            }
+            if (requests.isEmpty()) return;
+
+            List<DocumentProcessor.Progress> progress;
+            try {
+                progress = service.getExecutor().process(processings);
+            } catch (Exception e) {
+                // The exception is thrown from a call to a processor with the processings of all requests
+                for (RequestContext requestContext : requests)
+                    requestContext.processingFailed(e);
+                return;
+            }
+
+            int start = 0;
+            for (int i = 0; i < requests.size(); i++) {
+                List<Processing> requestProcessings = processingsPerRequest.get(i);
+                reply(requests.get(i), requestProcessings, progress.subList(start, start + requestProcessings.size()));
+                start += requestProcessings.size();
+            }
+        } catch (Error error) {
+            try {
+                log.log(Level.SEVERE, Exceptions.toMessageString(error), error);
+            } catch (Throwable t) {
+                // do nothing
+            } finally {
+                Runtime.getRuntime().halt(1);
+            }
+        }
+    }
+
+    /** Replies to a request given the progress of each of its processings, or continues it if it is not done */
+    private void reply(RequestContext requestContext, List<Processing> processings, List<DocumentProcessor.Progress> progress) {
+        List<Processing> done = new ArrayList<>();
+        List<Processing> later = new ArrayList<>();
+        DocumentProcessor.LaterProgress shortestDelay = null;
+        for (int i = 0; i < processings.size(); i++) {
+            Processing processing = processings.get(i);
+            DocumentProcessor.Progress processingProgress = progress.get(i);
+            if (DocumentProcessor.Progress.DONE.equals(processingProgress)) {
+                done.add(processing);
+            } else if (DocumentProcessor.Progress.LATER.equals(processingProgress)) {
+                later.add(processing);
+                DocumentProcessor.LaterProgress laterProgress = (DocumentProcessor.LaterProgress) processingProgress;
+                if (shortestDelay == null || laterProgress.getDelay() < shortestDelay.getDelay())
+                    shortestDelay = laterProgress;
+            } else { // FAILED or PERMANENT_FAILURE
+                DocumentProcessingTask.logProcessingFailure(processing, null);
+                requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE,
+                                                processingProgress.getReason().orElse("Document processing failed."));
+                return;
+            }
+        }
+
+        if (later.isEmpty()) {
+            requestContext.processingDone(done);
+        } else {
+            DocumentProcessingTask task = new DocumentProcessingTask(requestContext, docprocHandler, service,
+                                                                     service.getThreadPoolExecutor(), later, done);
+            docprocHandler.submit(task, shortestDelay.getDelay());
+        }
+    }
+
+}
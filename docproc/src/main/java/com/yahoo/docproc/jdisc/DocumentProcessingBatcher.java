@@ -0,0 +1,71 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc.jdisc;
+
+import com.yahoo.docproc.DocprocService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Collects the requests to one docproc chain into batches. A batch is processed when it has reached the
+ * maximum size, or when its first request has waited for the maximum delay.
+ *
+ * @author bratseth
+ */
+class DocumentProcessingBatcher {
+
+    private final DocumentProcessingHandler docprocHandler;
+    private final DocprocService service;
+    private final int maxBatchSize;
+    private final long maxBatchDelayMillis;
+
+    private final Object monitor = new Object();
+    private List<RequestContext> pending = new ArrayList<>();
+
+    DocumentProcessingBatcher(DocumentProcessingHandler docprocHandler, DocprocService service,
+                              int maxBatchSize, long maxBatchDelayMillis) {
+        this.docprocHandler = docprocHandler;
+        this.service = service;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+    }
+
+    void add(RequestContext requestContext) {
+        List<RequestContext> batch = null;
+        synchronized (monitor) {
+            pending.add(requestContext);
+            if (pending.size() >= maxBatchSize) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            else if (pending.size() == 1) {
+                List<RequestContext> scheduled = pending;
+                docprocHandler.schedule(() -> flush(scheduled), maxBatchDelayMillis);
+            }
+        }
+        if (batch != null)
+            submit(batch);
+    }
+
+    /** Processes the given batch if it is still pending, i.e. has not already been processed because it became full */
+    private void flush(List<RequestContext> batch) {
+        synchronized (monitor) {
+            if (pending != batch) return;
+            pending = new ArrayList<>();
+        }
+        submit(batch);
+    }
+
+    private void submit(List<RequestContext> batch) {
+        try {
+            service.getThreadPoolExecutor().execute(new DocumentProcessingBatchTask(batch, docprocHandler, service));
+        } catch (RejectedExecutionException e) {
+            for (RequestContext requestContext : batch)
+                requestContext.processingFailed(RequestContext.ErrorCode.ERROR_BUSY,
+                                                "Queue temporarily full. Returning message " + requestContext +
+                                                ". Will be automatically resent.");
+        }
+    }
+
+}
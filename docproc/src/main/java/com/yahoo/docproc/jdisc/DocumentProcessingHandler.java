@@ -27,7 +27,9 @@ import com.yahoo.messagebus.jdisc.MbusRequest;
 import com.yahoo.processing.execution.chain.ChainRegistry;
 import com.yahoo.statistics.Statistics;
 
+import java.util.Map;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -51,11 +53,16 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
             new ScheduledThreadPoolExecutor(2, new DaemonThreadFactory("docproc-later-"));
     private final ContainerDocumentConfig containerDocConfig;
     private final DocumentTypeManager documentTypeManager;
+    private final int maxBatchSize;
+    private final long maxBatchDelayMillis;
+    private final Map<DocprocService, DocumentProcessingBatcher> batchers = new ConcurrentHashMap<>();
 
     private DocumentProcessingHandler(ComponentRegistry<DocprocService> docprocServiceRegistry,
                                       ComponentRegistry<DocumentProcessor> documentProcessorComponentRegistry,
                                       ComponentRegistry<AbstractConcreteDocumentFactory> docFactoryRegistry,
                                       int numThreads,
+                                      int maxBatchSize,
+                                      long maxBatchDelayMillis,
                                       DocumentTypeManager documentTypeManager,
                                       ChainsModel chainsModel, SchemaMap schemaMap, Statistics statistics,
                                       Metric metric,
@@ -64,6 +71,8 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
         this.docFactoryRegistry = docFactoryRegistry;
         this.containerDocConfig = containerDocConfig;
         this.documentTypeManager = documentTypeManager;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
         DocprocService.schemaMap = schemaMap;
         laterExecutor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
         laterExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
@@ -90,6 +99,8 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
                               DocumentProcessingHandlerParameters params) {
         this(docprocServiceRegistry, documentProcessorComponentRegistry, docFactoryRegistry,
              params.getMaxNumThreads(),
+             params.getMaxBatchSize(),
+             params.getMaxBatchDelayMillis(),
              params.getDocumentTypeManager(), params.getChainsModel(), params.getSchemaMap(),
              params.getStatisticsManager(),
              params.getMetric(),
@@ -110,6 +121,8 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
              documentProcessorComponentRegistry, docFactoryRegistry,
                 new DocumentProcessingHandlerParameters()
                      .setMaxNumThreads(docprocConfig.numthreads())
+                     .setMaxBatchSize(docprocConfig.maxbatchsize())
+                     .setMaxBatchDelayMillis(docprocConfig.maxbatchdelayms())
                      .setDocumentTypeManager(new DocumentTypeManager(docManConfig))
                      .setChainsModel(buildFromConfig(chainsConfig)).setSchemaMap(configureMapping(mappingConfig))
                      .setStatisticsManager(manager)
@@ -178,11 +191,22 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
             return null;
         }
 
+        if (maxBatchSize > 1) {
+            batchers.computeIfAbsent(service, __ -> new DocumentProcessingBatcher(this, service, maxBatchSize, maxBatchDelayMillis))
+                    .add(requestContext);
+            return null;
+        }
+
         DocumentProcessingTask task = new DocumentProcessingTask(requestContext, this, service, service.getThreadPoolExecutor());
         task.submit();
         return null;
     }
 
+    /** Runs the given task after the given delay */
+    void schedule(Runnable task, long delayMillis) {
+        laterExecutor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
     void submit(DocumentProcessingTask task, long delay) {
         LaterTimerTask timerTask = new LaterTimerTask(task, delay);
         laterExecutor.schedule(timerTask, delay, TimeUnit.MILLISECONDS);
@@ -18,6 +18,8 @@ import com.yahoo.statistics.Statistics;
 public class DocumentProcessingHandlerParameters {
 
     private int maxNumThreads = 0;
+    private int maxBatchSize = 1;
+    private long maxBatchDelayMillis = 1;
     private DocumentTypeManager documentTypeManager = null;
     private ChainsModel chainsModel = null;
     private SchemaMap schemaMap = null;
@@ -50,6 +52,26 @@ public class DocumentProcessingHandlerParameters {
         return this;
     }
 
+    /** Returns the maximum number of requests whose processings are processed as one batch */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public DocumentProcessingHandlerParameters setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /** Returns the maximum time the first request of a batch waits for more requests before it is processed */
+    public long getMaxBatchDelayMillis() {
+        return maxBatchDelayMillis;
+    }
+
+    public DocumentProcessingHandlerParameters setMaxBatchDelayMillis(long maxBatchDelayMillis) {
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        return this;
+    }
+
     public DocumentTypeManager getDocumentTypeManager() {
         return documentTypeManager;
     }
@@ -45,6 +45,15 @@ public class DocumentProcessingTask implements Runnable {
         this.executor = executor;
     }
 
+    /** Creates a task which continues the given processings of a request, which have already been started */
+    DocumentProcessingTask(RequestContext requestContext, DocumentProcessingHandler docprocHandler,
+                           DocprocService service, ThreadPoolExecutor executor,
+                           List<Processing> processings, List<Processing> processingsDone) {
+        this(requestContext, docprocHandler, service, executor);
+        this.processings.addAll(processings);
+        this.processingsDone.addAll(processingsDone);
+    }
+
     void submit() {
         try {
             executor.execute(this);
@@ -185,7 +194,7 @@ public class DocumentProcessingTask implements Runnable {
                '}';
     }
 
-    private static void logProcessingFailure(Processing processing, Exception exception) {
+    static void logProcessingFailure(Processing processing, Exception exception) {
         //LOGGING ONLY:
         String errorMsg = processing + " failed at " + processing.callStack().getLastPopped();
         if (exception != null) {
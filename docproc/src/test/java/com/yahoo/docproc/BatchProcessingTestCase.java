@@ -0,0 +1,125 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc;
+
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.jdisc.Metric;
+import com.yahoo.statistics.Statistics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests processing multiple processings as a batch
+ *
+ * @author bratseth
+ */
+public class BatchProcessingTestCase {
+
+    @Test
+    public void testBatchProcessing() {
+        BatchingProcessor first = new BatchingProcessor(null);
+        BatchingProcessor second = new BatchingProcessor(1);
+        CountingProcessor third = new CountingProcessor();
+        DocprocExecutor executor = new DocprocExecutor("batch", new CallStack().addLast(first)
+                                                                               .addLast(second)
+                                                                               .addLast(third));
+        List<Processing> processings = List.of(new Processing(), new Processing(), new Processing());
+
+        List<DocumentProcessor.Progress> progress = executor.process(processings);
+        assertEquals(List.of(DocumentProcessor.Progress.DONE, DocumentProcessor.Progress.LATER, DocumentProcessor.Progress.DONE),
+                     progress);
+        assertEquals(List.of(3), first.batchSizes);
+        assertEquals(List.of(3), second.batchSizes);
+        assertEquals(2, third.count);
+
+        // Only the processing which returned LATER is processed again, and from where it left off
+        progress = executor.process(List.of(processings.get(1)));
+        assertEquals(List.of(DocumentProcessor.Progress.DONE), progress);
+        assertEquals(List.of(3), first.batchSizes);
+        assertEquals(List.of(3, 1), second.batchSizes);
+        assertEquals(3, third.count);
+        assertTrue(processings.stream().allMatch(processing -> processing.callStack().size() == 0));
+    }
+
+    @Test
+    public void testDocumentsAreCountedOnceWhenProcessedLater() {
+        RecordingMetric metric = new RecordingMetric();
+        BatchingProcessor processor = new BatchingProcessor(0);
+        DocprocExecutor executor = new DocprocExecutor("batch", new CallStack("batch", Statistics.nullImplementation, metric)
+                                                                        .addLast(processor));
+        Document document = new Document(new DocumentType("test"), "id:ns:test::1");
+        List<Processing> processings = List.of(Processing.of(new DocumentPut(document)), new Processing());
+
+        assertEquals(List.of(DocumentProcessor.Progress.LATER, DocumentProcessor.Progress.DONE),
+                     executor.process(processings));
+        assertEquals(List.of(DocumentProcessor.Progress.DONE), executor.process(List.of(processings.get(0))));
+        assertEquals(1, metric.sum("chain_batch_documents"));
+        assertEquals(1, metric.sum("docprocessor_batch_" + processor.getId().stringValue().replaceAll("[^\\p{Alnum}]", "_") + "_documents"));
+    }
+
+    private static class BatchingProcessor extends DocumentProcessor {
+
+        final List<Integer> batchSizes = new ArrayList<>();
+        private Integer laterIndex;
+
+        BatchingProcessor(Integer laterIndex) {
+            this.laterIndex = laterIndex;
+        }
+
+        @Override
+        public Progress process(Processing processing) {
+            throw new AssertionError("Batches should always be passed to process(List)");
+        }
+
+        @Override
+        public List<Progress> process(List<Processing> processings) {
+            batchSizes.add(processings.size());
+            List<Progress> progress = new ArrayList<>();
+            for (int i = 0; i < processings.size(); i++)
+                progress.add(laterIndex != null && laterIndex == i ? Progress.LATER : Progress.DONE);
+            laterIndex = null;
+            return progress;
+        }
+
+    }
+
+    private static class CountingProcessor extends DocumentProcessor {
+
+        int count = 0;
+
+        @Override
+        public Progress process(Processing processing) {
+            count++;
+            return Progress.DONE;
+        }
+
+    }
+
+    private static class RecordingMetric implements Metric {
+
+        private final Map<String, Long> sums = new HashMap<>();
+
+        long sum(String key) { return sums.getOrDefault(key, 0L); }
+
+        @Override
+        public void set(String key, Number val, Context ctx) { }
+
+        @Override
+        public void add(String key, Number val, Context ctx) {
+            sums.merge(key, val.longValue(), Long::sum);
+        }
+
+        @Override
+        public Context createContext(Map<String, ?> properties) { return null; }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc.jdisc;
+
+import com.yahoo.collections.Pair;
+import com.yahoo.docproc.CallStack;
+import com.yahoo.docproc.DocumentProcessor;
+import com.yahoo.docproc.Processing;
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentOperation;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.Field;
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.documentapi.messagebus.protocol.PutDocumentMessage;
+import com.yahoo.messagebus.Message;
+import com.yahoo.messagebus.Reply;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests processing the documents of multiple requests as one batch
+ *
+ * @author bratseth
+ */
+public class DocumentProcessingHandlerBatchTestCase extends DocumentProcessingHandlerTestBase {
+
+    private final DocumentType type;
+    private final BatchRecordingProcessor processor = new BatchRecordingProcessor();
+
+    public DocumentProcessingHandlerBatchTestCase() {
+        this.type = new DocumentType("batch");
+        this.type.addField(new Field("title", DataType.STRING));
+    }
+
+    @Test
+    public void testRequestsAreProcessedAsOneBatchAndRepliedToSeparately() throws InterruptedException {
+        assertTrue(sendMessage("batch", put("id:ns:batch::done")));
+        assertTrue(sendMessage("batch", put("id:ns:batch::fail")));
+        assertTrue(sendMessage("batch", put("id:ns:batch::later")));
+
+        Set<String> forwarded = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            Message message = remoteServer.awaitMessage(60, TimeUnit.SECONDS);
+            assertNotNull(message);
+            forwarded.add(((PutDocumentMessage) message).getDocumentPut().getId().toString());
+            remoteServer.ackMessage(message);
+        }
+        assertEquals(Set.of("id:ns:batch::done", "id:ns:batch::later"), forwarded);
+
+        int failed = 0;
+        for (int i = 0; i < 3; i++) {
+            Reply reply = driver.client().awaitReply(60, TimeUnit.SECONDS);
+            assertNotNull(reply);
+            if (reply.hasErrors())
+                failed++;
+        }
+        assertEquals(1, failed);
+        assertEquals(3, (int) processor.batchSizes.get(0));
+    }
+
+    @Test
+    public void testIncompleteBatchIsProcessedAfterMaxDelay() throws InterruptedException {
+        assertTrue(sendMessage("batch", put("id:ns:batch::done")));
+
+        Message message = remoteServer.awaitMessage(60, TimeUnit.SECONDS);
+        assertNotNull(message);
+        remoteServer.ackMessage(message);
+        Reply reply = driver.client().awaitReply(60, TimeUnit.SECONDS);
+        assertNotNull(reply);
+        assertEquals(List.of(1), processor.batchSizes);
+    }
+
+    private PutDocumentMessage put(String id) {
+        Document document = new Document(getType(), id);
+        document.setFieldValue("title", new StringFieldValue("A title"));
+        return new PutDocumentMessage(new DocumentPut(document));
+    }
+
+    @Override
+    protected DocumentProcessingHandlerParameters configure(DocumentProcessingHandlerParameters parameters) {
+        return parameters.setMaxBatchSize(3).setMaxBatchDelayMillis(3000);
+    }
+
+    @Override
+    public List<Pair<String, CallStack>> getCallStacks() {
+        CallStack stack = new CallStack();
+        stack.addLast(processor);
+
+        ArrayList<Pair<String, CallStack>> stacks = new ArrayList<>(1);
+        stacks.add(new Pair<>("batch", stack));
+        return stacks;
+    }
+
+    @Override
+    public DocumentType getType() {
+        return type;
+    }
+
+    /** Records batch sizes, fails documents with "fail" in the id and returns LATER once for those with "later" */
+    private static class BatchRecordingProcessor extends DocumentProcessor {
+
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String> postponed = Collections.synchronizedSet(new HashSet<>());
+
+        @Override
+        public Progress process(Processing processing) {
+            for (DocumentOperation operation : processing.getDocumentOperations()) {
+                String id = operation.getId().toString();
+                if (id.contains("fail")) return Progress.FAILED.withReason("Failing " + id);
+                if (id.contains("later") && postponed.add(id)) return Progress.LATER;
+            }
+            return Progress.DONE;
+        }
+
+        @Override
+        public List<Progress> process(List<Processing> processings) {
+            batchSizes.add(processings.size());
+            return super.process(processings);
+        }
+
+    }
+
+}
@@ -61,9 +61,9 @@ public abstract class DocumentProcessingHandlerTestBase {
         handler = new DocumentProcessingHandler(registry,
                 new ComponentRegistry<>(),
                 new ComponentRegistry<>(),
-                new DocumentProcessingHandlerParameters().
+                configure(new DocumentProcessingHandlerParameters().
                         setDocumentTypeManager(documentTypeManager).
-                        setContainerDocumentConfig(new ContainerDocumentConfig(new ContainerDocumentConfig.Builder())));
+                        setContainerDocumentConfig(new ContainerDocumentConfig(new ContainerDocumentConfig.Builder()))));
         builder.serverBindings().bind("mbus://*/*", handler);
 
         ReferencedResource<SharedSourceSession> sessionRef = sessionCache.retainSource(new SourceSessionParams());
@@ -116,6 +116,11 @@ public abstract class DocumentProcessingHandlerTestBase {
 
     protected abstract List<Pair<String, CallStack>> getCallStacks();
 
+    /** Override to change the parameters of the handler under test */
+    protected DocumentProcessingHandlerParameters configure(DocumentProcessingHandlerParameters parameters) {
+        return parameters;
+    }
+
     protected abstract DocumentType getType();
 
     public boolean sendMessage(String destinationChainName, DocumentMessage msg) {
@@ -99,8 +99,8 @@ public class IndexingProcessor extends DocumentProcessor {
             log.log(Level.FINE, "Document '" + prev.getId() + "' produced no output.");
             return;
         }
-
-        out.add(new DocumentPut(prev, next));
+        // The script writes its outputs into the input document, in which case the put can be passed on as-is
+        out.add(next == prev.getDocument() ? prev : new DocumentPut(prev, next));
     }
 
     private void processUpdate(DocumentUpdate prev, List<DocumentOperation> out) {
@@ -43,6 +43,17 @@ public class IndexingProcessorTestCase {
         assertEquals("music", output.getDataType().getName());
     }
 
+    @Test
+    public void requireThatIndexerProcessesDocumentsInPlace() {
+        Document input = new Document(indexer.getDocumentTypeManager().getDocumentType("music"), "id:ns:music::");
+        input.setFieldValue("artist", new StringFieldValue("69"));
+        DocumentPut put = new DocumentPut(input);
+        DocumentOperation output = process(put);
+        assertSame(put, output);
+        assertSame(input, ((DocumentPut)output).getDocument());
+        assertEquals(new StringFieldValue("69"), input.getFieldValue("title"));
+    }
+
     @Test
     public void requireThatIndexerForwardsDocumentsOfUnknownType() {
         Document input = new Document(new DocumentType("unknown"), "id:ns:unknown::");
@@ -14,11 +14,16 @@ import net.jpountz.xxhash.XXHashFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -38,6 +43,9 @@ public class FileReceiver {
     public final static String RECEIVE_PART_METHOD = "filedistribution.receiveFilePart";
     public final static String RECEIVE_EOF_METHOD = "filedistribution.receiveFileEof";
 
+    /** Sessions which have received nothing for this long are assumed abandoned by the sender, and are closed */
+    final static Duration sessionTimeout = Duration.ofMinutes(10);
+
     private final Supervisor supervisor;
     private final FileReferenceDownloader downloader;
     private final File downloadDirectory;
@@ -60,6 +68,8 @@ public class FileReceiver {
         private final File fileReferenceDir;
         private final File tmpDir;
         private final File inprogressFile;
+        private final FileChannel channel;
+        private volatile Instant lastActive;
 
         Session(File downloadDirectory, File tmpDirectory, int sessionId, FileReference reference,
                 FileReferenceData.Type fileType, String fileName, long fileSize)
@@ -75,9 +85,20 @@ public class FileReceiver {
             currentHash = 0;
             fileReferenceDir = new File(downloadDirectory, reference.value());
             this.tmpDir = tmpDirectory;
+            lastActive = Instant.now();
 
             try {
                 inprogressFile = Files.createTempFile(tmpDirectory.toPath(), fileName, ".inprogress").toFile();
+                // Keep the file open for the whole session and preallocate it, instead of reopening and
+                // appending to it for every part
+                channel = FileChannel.open(inprogressFile.toPath(), StandardOpenOption.WRITE);
+                try {
+                    preallocate(channel, fileSize);
+                } catch (IOException e) {
+                    channel.close();
+                    inprogressFile.delete();
+                    throw e;
+                }
             } catch (IOException e) {
                 String msg = "Failed creating temp file for inprogress file for " + fileName + " in '" + tmpDirectory.toPath() + "': ";
                 log.log(Level.SEVERE, msg + e.getMessage(), e);
@@ -85,7 +106,13 @@ public class FileReceiver {
             }
         }
 
+        private static void preallocate(FileChannel channel, long fileSize) throws IOException {
+            if (fileSize > 0)
+                channel.write(ByteBuffer.allocate(1), fileSize - 1);
+        }
+
         void addPart(int partId, byte [] part) {
+            lastActive = Instant.now();
             if (partId != currentPartId) {
                 throw new IllegalStateException("Received partid " + partId + " while expecting " + currentPartId);
             }
@@ -94,10 +121,13 @@ public class FileReceiver {
                                                 (currentFileSize + part.length) + ", but " + fileSize + " is max.");
             }
             try {
-                Files.write(inprogressFile.toPath(), part, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                ByteBuffer buffer = ByteBuffer.wrap(part);
+                for (long position = currentFileSize; buffer.hasRemaining(); )
+                    position += channel.write(buffer, position);
             } catch (IOException e) {
                 String message = "Failed writing to file (" + inprogressFile.toPath() + "): ";
                 log.log(Level.SEVERE, message + e.getMessage(), e);
+                closeChannel();
                 boolean successfulDelete = inprogressFile.delete();
                 if ( ! successfulDelete)
                     log.log(Level.INFO, "Unable to delete " + inprogressFile.toPath());
@@ -108,7 +138,30 @@ public class FileReceiver {
             hasher.update(part, 0, part.length);
         }
 
+        private void closeChannel() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed closing " + inprogressFile.toPath() + ": " + e.getMessage());
+            }
+        }
+
+        /** Closes this without completing the file, and deletes what was received so far */
+        void abort() {
+            closeChannel();
+            deleteFileOrDirectory(inprogressFile);
+        }
+
+        /** Returns whether nothing has been received in this session since the given instant */
+        boolean isInactiveSince(Instant instant) {
+            return lastActive.isBefore(instant);
+        }
+
         File close(long hash) {
+            closeChannel();
+            if (currentFileSize != fileSize) {
+                throw new RuntimeException("Received " + currentFileSize + " bytes of " + fileName + ", but expected " + fileSize);
+            }
             if (hasher.getValue() != hash) {
                 throw new RuntimeException("xxhash from content (" + currentHash + ") is not equal to xxhash in request (" + hash + ")");
             }
@@ -226,6 +279,7 @@ public class FileReceiver {
         int sessionId = nextSessionId.getAndIncrement();
         int retval = 0;
         synchronized (sessions) {
+            closeInactiveSessions(Instant.now().minus(sessionTimeout));
             if (sessions.containsKey(sessionId)) {
                 retval = 1;
                 log.severe("Session id " + sessionId + " already exist, impossible. Request from(" + req.target() + ")");
@@ -254,13 +308,15 @@ public class FileReceiver {
         if (retval == 0) {
             try {
                 session.addPart(partId, part);
+                double completeness = (double) session.currentFileSize / (double) session.fileSize;
+                log.log(Level.FINEST, () -> String.format("%.1f percent of '%s' downloaded", completeness * 100, reference.value()));
+                downloader.setDownloadStatus(reference, completeness);
             } catch (Exception e) {
                 log.severe("Got exception " + e);
                 retval = 1;
+                removeSession(sessionId);
+                session.abort();
             }
-            double completeness = (double) session.currentFileSize / (double) session.fileSize;
-            log.log(Level.FINEST, () -> String.format("%.1f percent of '%s' downloaded", completeness * 100, reference.value()));
-            downloader.setDownloadStatus(reference, completeness);
         }
         req.returnValues().add(new Int32Value(retval));
     }
@@ -272,14 +328,38 @@ public class FileReceiver {
         long xxhash = req.parameters().get(2).asInt64();
         Session session = getSession(sessionId);
         int retval = verifySession(session, sessionId, reference);
-        File file = session.close(xxhash);
-        downloader.completedDownloading(reference, file);
-        synchronized (sessions) {
-            sessions.remove(sessionId);
+        if (retval == 0) {
+            removeSession(sessionId);
+            try {
+                File file = session.close(xxhash);
+                downloader.completedDownloading(reference, file);
+            } catch (RuntimeException e) {
+                session.abort();
+                throw e;
+            }
         }
         req.returnValues().add(new Int32Value(retval));
     }
 
+    private Session removeSession(int sessionId) {
+        synchronized (sessions) {
+            return sessions.remove(sessionId);
+        }
+    }
+
+    /** Closes and removes the sessions which have been inactive since the given instant. Must be called with sessions locked */
+    private void closeInactiveSessions(Instant instant) {
+        for (Iterator<Session> i = sessions.values().iterator(); i.hasNext(); ) {
+            Session session = i.next();
+            if ( ! session.isInactiveSince(instant)) continue;
+
+            log.log(Level.INFO, "Closing session " + session.sessionId + " receiving " + session.fileName +
+                                " of " + session.reference.value() + ", as nothing has been received in " + sessionTimeout);
+            session.abort();
+            i.remove();
+        }
+    }
+
     private Session getSession(Integer sessionId) {
         synchronized (sessions) {
             return sessions.get(sessionId);
@@ -12,12 +12,16 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.time.Instant;
 
 public class FileReceiverTest {
     private File root;
@@ -67,6 +71,60 @@ public class FileReceiverTest {
         assertEquals("2", IOUtils.readFile(new File(downloadDir, "b")));
     }
 
+    @Test
+    public void partsOutOfOrderAreRejected() throws IOException {
+        byte [] first = Utf8.toBytes("first part\n");
+        byte [] second = Utf8.toBytes("second part\n");
+        FileReceiver.Session session = new FileReceiver.Session(root, tempDir, 1, new FileReference("ref-b"),
+                                                                FileReferenceData.Type.file, "myfile", first.length + second.length);
+        session.addPart(0, first);
+        assertPartFails(session, 0, first, "Received partid 0 while expecting 1");
+        assertPartFails(session, 2, second, "Received partid 2 while expecting 1");
+        session.addPart(1, second);
+
+        String all = "first part\nsecond part\n";
+        File file = session.close(hasher.hash(ByteBuffer.wrap(Utf8.toBytes(all)), 0));
+        assertEquals(all, Utf8.toString(Files.readAllBytes(file.toPath())));
+    }
+
+    @Test
+    public void fileShorterThanAnnouncedIsRejected() {
+        byte [] first = Utf8.toBytes("first part\n");
+        FileReceiver.Session session = new FileReceiver.Session(root, tempDir, 1, new FileReference("ref-d"),
+                                                                FileReferenceData.Type.file, "myfile", 2 * first.length);
+        session.addPart(0, first);
+        try {
+            session.close(hasher.hash(ByteBuffer.wrap(first), 0));
+            fail("Expected a file shorter than announced to be rejected");
+        } catch (RuntimeException e) {
+            assertEquals("Received 11 bytes of myfile, but expected 22", e.getMessage());
+        }
+        assertFalse(new File(new File(root, "ref-d"), "myfile").exists());
+    }
+
+    @Test
+    public void abortSession() {
+        byte [] first = Utf8.toBytes("first part\n");
+        FileReceiver.Session session = new FileReceiver.Session(root, tempDir, 1, new FileReference("ref-c"),
+                                                                FileReferenceData.Type.file, "myfile", 2 * first.length);
+        session.addPart(0, first);
+        assertEquals(1, tempDir.list().length);
+        assertFalse(session.isInactiveSince(Instant.now().minus(FileReceiver.sessionTimeout)));
+        assertTrue(session.isInactiveSince(Instant.now().plusSeconds(1)));
+
+        session.abort();
+        assertEquals(0, tempDir.list().length);
+    }
+
+    private void assertPartFails(FileReceiver.Session session, int partId, byte [] part, String expectedMessage) {
+        try {
+            session.addPart(partId, part);
+            fail("Expected part " + partId + " to fail");
+        } catch (IllegalStateException e) {
+            assertEquals(expectedMessage, e.getMessage());
+        }
+    }
+
     private void transferPartsAndAssert(FileReference ref, String fileName, String all, int numParts) throws IOException {
         byte [] allContent = Utf8.toBytes(all);
 
@@ -14,6 +14,7 @@ import java.nio.CharBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -70,6 +71,10 @@ public class FSA implements Closeable {
         }
 
         public void delta(char chr){
+            if (fsa.isUtf8()) {
+                deltaCodePoint(fsa.map(), chr);
+                return;
+            }
             CharBuffer chrbuf = CharBuffer.allocate(1);
             chrbuf.put(0,chr);
             ByteBuffer buf = fsa.encode(chrbuf);
@@ -79,15 +84,74 @@ public class FSA implements Closeable {
             }
         }
 
+        /** Jumps ahead by the (encoded) bytes of a single unicode code point */
+        public void deltaCodePoint(int codePoint) {
+            if (fsa.isUtf8())
+                deltaCodePoint(fsa.map(), codePoint);
+            else
+                delta(new String(Character.toChars(codePoint)));
+        }
+
+        /**
+         * Jumps ahead by the given UTF-8 encoded bytes. This does not allocate and is the fastest
+         * way to traverse an utf-8 automaton when the input is already encoded.
+         */
+        public void delta(byte[] symbols, int offset, int length) {
+            Maps m = fsa.map();
+            for (int i = offset; state > 0 && i < offset + length; i++)
+                delta(m, symbols[i]);
+        }
+
         /** Jumps ahead by string */
         public void delta(String string){
-            ByteBuffer buf = fsa.encode(string);
             Maps m = fsa.map();
+            if (fsa.isUtf8()) {
+                for (int i = 0; state > 0 && i < string.length(); ) {
+                    int codePoint = string.codePointAt(i);
+                    deltaCodePoint(m, codePoint);
+                    i += Character.charCount(codePoint);
+                }
+                return;
+            }
+            ByteBuffer buf = fsa.encode(string);
             while (state >0 && buf.position()<buf.limit()){
                 delta(m, buf.get());
             }
         }
 
+        /**
+         * Encodes the code point as utf-8 directly into deltas, without going through a charset encoder.
+         * Unpaired surrogates are replaced by '?', as done by the charset encoder.
+         */
+        private void deltaCodePoint(Maps m, int codePoint) {
+            if (codePoint < 0x80) {
+                deltaIfValid(m, codePoint);
+            }
+            else if (codePoint < 0x800) {
+                deltaIfValid(m, 0xc0 | (codePoint >> 6));
+                deltaIfValid(m, 0x80 | (codePoint & 0x3f));
+            }
+            else if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                deltaIfValid(m, '?');
+            }
+            else if (codePoint < 0x10000) {
+                deltaIfValid(m, 0xe0 | (codePoint >> 12));
+                deltaIfValid(m, 0x80 | ((codePoint >> 6) & 0x3f));
+                deltaIfValid(m, 0x80 | (codePoint & 0x3f));
+            }
+            else {
+                deltaIfValid(m, 0xf0 | (codePoint >> 18));
+                deltaIfValid(m, 0x80 | ((codePoint >> 12) & 0x3f));
+                deltaIfValid(m, 0x80 | ((codePoint >> 6) & 0x3f));
+                deltaIfValid(m, 0x80 | (codePoint & 0x3f));
+            }
+        }
+
+        private void deltaIfValid(Maps m, int symbol) {
+            if (state > 0)
+                delta(m, (byte)symbol);
+        }
+
         /**
          * Jumps ahead by string if that puts us into a valid state, does nothing otherwise
          *
@@ -175,7 +239,8 @@ public class FSA implements Closeable {
          */
         public static class Item {
             private FSA fsa;
-            private java.util.Stack<Byte> string;
+            private byte[] string;
+            private int length;
             private int symbol;
             private int state;
             private java.util.Stack<Integer> stack;
@@ -188,7 +253,8 @@ public class FSA implements Closeable {
              */
             public Item(FSA fsa, int state) {
                 this.fsa = fsa;
-                this.string = new java.util.Stack();
+                this.string = new byte[16];
+                this.length = 0;
                 this.symbol = 0;
                 this.state = state;
                 this.stack = new java.util.Stack();
@@ -199,11 +265,8 @@ public class FSA implements Closeable {
              */
             public Item(Item item) {
                 this.fsa = item.fsa;
-                this.string = new java.util.Stack();
-                for (java.util.Iterator<Byte> itr = item.string.iterator(); itr.hasNext(); ) {
-                    byte b = itr.next();
-                    this.string.push(b);
-                }
+                this.string = java.util.Arrays.copyOf(item.string, item.length);
+                this.length = item.length;
                 this.symbol = item.symbol;
                 this.state = item.state;
                 // no need to fill the stack as this constructor is used by Iterator::next()
@@ -211,13 +274,17 @@ public class FSA implements Closeable {
             }
 
             public String getString() {
-                ByteBuffer buffer = ByteBuffer.allocate(string.size());
-                for (java.util.Iterator<Byte> itr = string.iterator(); itr.hasNext(); ) {
-                    byte b = itr.next();
-                    buffer.put(b);
-                }
-                buffer.flip();
-                return fsa.decode(buffer);
+                return new String(string, 0, length, fsa._charset);
+            }
+
+            private void push(byte symbol) {
+                if (length == string.length)
+                    string = java.util.Arrays.copyOf(string, Math.max(16, 2 * length));
+                string[length++] = symbol;
+            }
+
+            private byte pop() {
+                return string[--length];
             }
 
             public ByteBuffer getData() {
@@ -230,7 +297,7 @@ public class FSA implements Closeable {
 
             @Override
             public String toString() {
-                return "string: " + string + "(" + getString() + "), symbol: " + symbol + ", state: " + state;
+                return "string: " + java.util.Arrays.toString(java.util.Arrays.copyOf(string, length)) + "(" + getString() + "), symbol: " + symbol + ", state: " + state;
             }
         }
 
@@ -270,7 +337,7 @@ public class FSA implements Closeable {
                     byte symbol = (byte)item.symbol;
                     nextState = item.fsa.delta(item.state, (byte)item.symbol);
                     if (nextState != 0) {
-                        item.string.push((byte)item.symbol);
+                        item.push((byte)item.symbol);
                         item.stack.push(item.state);
                         item.state = nextState;
                         item.symbol = 0;
@@ -279,8 +346,8 @@ public class FSA implements Closeable {
                         }
                     }
                 } else { // backtrack
-                    if ((depth = item.string.size()) > 0) {
-                        byte b = item.string.pop(); // remove the last byte
+                    if ((depth = item.length) > 0) {
+                        byte b = item.pop(); // remove the last byte
                         item.symbol = b < 0 ? b + 256 : b;
                         item.state = item.stack.pop();
                     } else {
@@ -451,6 +518,7 @@ public class FSA implements Closeable {
     }
     private final boolean _ok;
     private final Charset _charset;
+    private final boolean utf8;
     private final AtomicReference<Maps> maps = new AtomicReference<>();
 
 
@@ -515,6 +583,7 @@ public class FSA implements Closeable {
     private FSA(FileInputStream file, String charsetname, boolean closeInput) {
         try {
             _charset = Charset.forName(charsetname);
+            utf8 = _charset.equals(StandardCharsets.UTF_8);
             maps.set(new Maps(file));
             _ok=true;
         }
@@ -556,6 +625,11 @@ public class FSA implements Closeable {
         return _ok;
     }
 
+    /** Returns whether this automaton uses utf-8, in which case lookups does not need to go through a charset encoder */
+    boolean isUtf8() {
+        return utf8;
+    }
+
     public boolean hasPerfectHash(){
         return _ok && map().h_has_phash()==1;
     }
@@ -79,6 +79,33 @@ public class UTF8TestCase {
         assertTrue(state.isFinal());
     }
 
+    @Test
+    public void testCodePointDelta() {
+        word.codePoints().forEach(codePoint -> {
+            state.deltaCodePoint(codePoint);
+            assertTrue(state.isValid());
+        });
+        assertTrue(state.isFinal());
+    }
+
+    @Test
+    public void testByteArrayDelta() {
+        byte[] buf = new byte[prefixBuf.length + suffixBuf.length + 2];
+        System.arraycopy(prefixBuf, 0, buf, 1, prefixBuf.length);
+        System.arraycopy(suffixBuf, 0, buf, 1 + prefixBuf.length, suffixBuf.length);
+        state.delta(buf, 1, prefixBuf.length);
+        assertTrue(state.isValid());
+        assertFalse(state.isFinal());
+        state.delta(buf, 1 + prefixBuf.length, suffixBuf.length);
+        assertTrue(state.isFinal());
+    }
+
+    @Test
+    public void testUnpairedSurrogateDelta() {
+        state.delta(prefix + '\ud800');
+        assertFalse(state.isValid());
+    }
+
     @Test
     public void testIteratorAtStart() {
         Iterator<FSA.Iterator.Item> itr = fsa.iterator(state);
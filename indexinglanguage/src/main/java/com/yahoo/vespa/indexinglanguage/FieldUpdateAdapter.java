@@ -51,20 +51,25 @@ public class FieldUpdateAdapter implements UpdateAdapter {
     @Override
     public DocumentUpdate getOutput() {
         Document doc = adapter.getUpdatableOutput();
-        DocumentUpdate upd = new DocumentUpdate(doc.getDataType(), doc.getId());
+        DocumentUpdate upd = null; // Created on the first value update, as many adapters produce none
         for (Iterator<Map.Entry<Field, FieldValue>> it = doc.iterator(); it.hasNext();) {
             Map.Entry<Field, FieldValue> entry = it.next();
             Field field = entry.getKey();
             if (field.getName().equals("sddocname")) {
                 continue;
             }
-            FieldUpdate fieldUpd = FieldUpdate.create(field);
-            fieldUpd.addValueUpdates(builder.build(entry.getValue()));
-            if (!fieldUpd.isEmpty()) {
-                upd.addFieldUpdate(fieldUpd);
+            List<ValueUpdate> valueUpdates = builder.build(entry.getValue());
+            if (valueUpdates.isEmpty()) {
+                continue;
             }
+            if (upd == null) {
+                upd = new DocumentUpdate(doc.getDataType(), doc.getId());
+            }
+            FieldUpdate fieldUpd = FieldUpdate.create(field);
+            fieldUpd.addValueUpdates(valueUpdates);
+            upd.addFieldUpdate(fieldUpd);
         }
-        return upd.isEmpty() ? null : upd;
+        return upd;
     }
 
     @Override
@@ -4,11 +4,14 @@ package com.yahoo.vespa.indexinglanguage.expressions;
 import com.yahoo.document.DataType;
 import com.yahoo.document.FieldPath;
 import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.document.datatypes.StringFieldValue;
 import com.yahoo.language.Language;
 import com.yahoo.language.Linguistics;
 import com.yahoo.language.detect.Detection;
+import com.yahoo.vespa.indexinglanguage.linguistics.AnnotatorConfig;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
@@ -21,6 +24,13 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter, Cl
     private FieldValue value;
     private Language language;
 
+    /**
+     * Linguistics annotated values by the input value instance they were created from and the config used.
+     * This lives across statements (it is not cleared by {@link #clear}), such that multiple statements tokenizing
+     * the same input the same way only runs linguistics once.
+     */
+    private Map<StringFieldValue, Map<AnnotatorConfig, StringFieldValue>> annotatedValues = null;
+
     public ExecutionContext() {
         this(null);
     }
@@ -122,6 +132,21 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter, Cl
         return this;
     }
 
+    /** Returns a value previously annotated from this input value instance with this config, or null if none */
+    StringFieldValue getAnnotated(StringFieldValue input, AnnotatorConfig config) {
+        if (annotatedValues == null) return null;
+        Map<AnnotatorConfig, StringFieldValue> annotatedFromInput = annotatedValues.get(input);
+        if (annotatedFromInput == null) return null;
+        return annotatedFromInput.get(config);
+    }
+
+    /** Remembers the value annotated from the given input value instance with the given config */
+    void putAnnotated(StringFieldValue input, AnnotatorConfig config, StringFieldValue annotated) {
+        if (annotatedValues == null)
+            annotatedValues = new IdentityHashMap<>();
+        annotatedValues.computeIfAbsent(input, key -> new HashMap<>(4)).put(config, annotated);
+    }
+
     public ExecutionContext clear() {
         variables.clear();
         value = null;
@@ -34,16 +34,23 @@ public final class TokenizeExpression extends Expression {
     @Override
     protected void doExecute(ExecutionContext context) {
         StringFieldValue input = (StringFieldValue)context.getValue();
-        StringFieldValue output = input.clone();
-        context.setValue(output);
 
         AnnotatorConfig cfg = new AnnotatorConfig(config);
         Language lang = context.resolveLanguage(linguistics);
         if (lang != null) {
             cfg.setLanguage(lang);
         }
+        StringFieldValue annotated = context.getAnnotated(input, cfg);
+        if (annotated != null) { // another statement has already tokenized this input in the same way
+            context.setValue(annotated.clone());
+            return;
+        }
+
+        StringFieldValue output = input.clone();
         LinguisticsAnnotator annotator = new LinguisticsAnnotator(linguistics, cfg);
         annotator.annotate(output);
+        context.putAnnotated(input, cfg, output);
+        context.setValue(output);
     }
 
     @Override
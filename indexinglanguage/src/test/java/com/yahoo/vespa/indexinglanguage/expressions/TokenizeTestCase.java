@@ -62,4 +62,24 @@ public class TokenizeTestCase {
         assertTrue(val instanceof StringFieldValue);
         assertNotNull(((StringFieldValue)val).getSpanTree(SpanTrees.LINGUISTICS));
     }
+
+    @Test
+    public void requireThatInputIsOnlyTokenizedOnceForEachConfig() {
+        Linguistics linguistics = Mockito.spy(new SimpleLinguistics());
+        ExecutionContext ctx = new ExecutionContext(new SimpleTestAdapter());
+        StringFieldValue input = new StringFieldValue("foo");
+
+        ctx.clear().setValue(input).execute(new TokenizeExpression(linguistics, new AnnotatorConfig()));
+        StringFieldValue first = (StringFieldValue)ctx.getValue();
+        ctx.clear().setValue(input).execute(new TokenizeExpression(linguistics, new AnnotatorConfig()));
+        StringFieldValue second = (StringFieldValue)ctx.getValue();
+        Mockito.verify(linguistics, Mockito.times(1)).getTokenizer();
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertNull(input.getSpanTree(SpanTrees.LINGUISTICS));
+
+        ctx.clear().setValue(input).execute(new TokenizeExpression(linguistics, new AnnotatorConfig().setRemoveAccents(true)));
+        Mockito.verify(linguistics, Mockito.times(2)).getTokenizer();
+    }
+
 }
@@ -60,19 +60,28 @@ public class UnsafeContentInputStream extends InputStream {
         if (len == 0) {
             return 0;
         }
-        int c = read();
-        if (c == -1) {
-            return -1;
-        }
-        buf[off] = (byte)c;
-        int cnt = 1;
-        for (; cnt < len && available() > 0; ++cnt) {
-            if ((c = read()) == -1) {
+        int cnt = 0;
+        // Block only for the first byte, then copy whatever more is available, a buffer at a time
+        while (cnt < len && (cnt == 0 || available() > 0)) {
+            while (this.buf != null && this.buf.remaining() == 0) {
+                this.buf = content.read();
+            }
+            if (this.buf == null) {
                 break;
             }
-            buf[off + cnt] = (byte)c;
+            int n = Math.min(len - cnt, this.buf.remaining());
+            this.buf.get(buf, off + cnt, n);
+            if (marked != null) {
+                if (readSinceMarked + n <= marked.length) {
+                    System.arraycopy(buf, off + cnt, marked, readSinceMarked, n);
+                    readSinceMarked += n;
+                } else {
+                    marked = null;
+                }
+            }
+            cnt += n;
         }
-        return cnt;
+        return cnt == 0 ? -1 : cnt;
     }
 
     @Override
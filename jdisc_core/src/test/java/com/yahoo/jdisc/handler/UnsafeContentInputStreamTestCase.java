@@ -10,6 +10,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -149,6 +150,32 @@ public class UnsafeContentInputStreamTestCase {
         assertEquals(0, stream.available());
     }
 
+    @Test
+    public void requireThatReadCopiesAcrossAvailableBuffers() throws IOException {
+        BufferedContentChannel channel = new BufferedContentChannel();
+        InputStream stream = asInputStream(channel);
+        channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), null);
+        channel.write(ByteBuffer.wrap(new byte[0]), null);
+        channel.write(ByteBuffer.wrap(new byte[] { 4, 5 }), null);
+
+        assertEquals(1, stream.read());
+        stream.mark(4);
+        byte[] buf = new byte[6];
+        assertEquals(2, stream.read(buf, 1, 2));
+        assertEquals(2, buf[1]);
+        assertEquals(3, buf[2]);
+        assertEquals(2, stream.read(buf, 0, 6));
+        assertEquals(4, buf[0]);
+        assertEquals(5, buf[1]);
+        stream.reset();
+        channel.write(ByteBuffer.wrap(new byte[] { 6, 7, 8 }), null);
+        assertEquals(6, stream.read(buf));
+        assertArrayEquals(new byte[] { 2, 3, 4, 5, 6, 7 }, buf);
+        assertEquals(8, stream.read());
+        channel.close(null);
+        assertEquals(-1, stream.read(buf));
+    }
+
     @Test
     public void requireThatAllByteValuesCanBeRead() throws IOException {
         ReadableContentChannel content = new ReadableContentChannel();
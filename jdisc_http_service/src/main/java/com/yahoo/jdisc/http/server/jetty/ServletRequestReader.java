@@ -36,6 +36,7 @@ class ServletRequestReader implements ReadListener {
     private static final Logger log = Logger.getLogger(ServletRequestReader.class.getName());
 
     private static final int BUFFER_SIZE_BYTES = 8 * 1024;
+    private static final int MAX_BUFFER_SIZE_BYTES = 64 * 1024;
 
     private final Object monitor = new Object();
 
@@ -110,7 +111,7 @@ class ServletRequestReader implements ReadListener {
     @Override
     public void onDataAvailable() throws IOException {
         while (servletInputStream.isReady()) {
-            final byte[] buffer = new byte[BUFFER_SIZE_BYTES];
+            final byte[] buffer = new byte[nextBufferSize()];
             int numBytesRead;
 
             synchronized (monitor) {
@@ -145,6 +146,16 @@ class ServletRequestReader implements ReadListener {
         }
     }
 
+    /**
+     * Returns the size of the next buffer to read into: The number of bytes which can be read without blocking, if known.
+     * Buffers cannot be reused, as ownership of them is transferred to the request content channel,
+     * so this avoids allocating full size buffers for small request bodies.
+     */
+    private int nextBufferSize() throws IOException {
+        int available = servletInputStream.available();
+        return available > 0 ? Math.min(available, MAX_BUFFER_SIZE_BYTES) : BUFFER_SIZE_BYTES;
+    }
+
     private void decreaseOutstandingUserCallsAndCloseRequestContentChannelConditionally() {
         boolean shouldCloseRequestContentChannel;
 
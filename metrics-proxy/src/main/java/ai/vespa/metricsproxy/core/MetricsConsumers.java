@@ -7,6 +7,7 @@ import ai.vespa.metricsproxy.metric.model.ConsumerId;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,11 +34,15 @@ public class MetricsConsumers {
     // All consumers for each metric (more useful than the opposite map).
     private final Map<Consumer.Metric, List<ConsumerId>> consumersByMetric;
 
+    // All configured metrics (for any consumer) for each metric name.
+    private final Map<String, List<Consumer.Metric>> metricsByName;
+
     public MetricsConsumers(ConsumersConfig config) {
         consumerMetrics = config.consumer().stream().collect(
                 toUnmodifiableLinkedMap(consumer -> toConsumerId(consumer.name()), Consumer::metric));
 
         consumersByMetric = createConsumersByMetric(consumerMetrics);
+        metricsByName = createMetricsByName(consumersByMetric.keySet());
     }
 
     /**
@@ -52,6 +57,14 @@ public class MetricsConsumers {
         return consumersByMetric;
     }
 
+    /**
+     * @param metricName The name of a metric
+     * @return All configured metrics, for any consumer, with the given name.
+     */
+    public List<Consumer.Metric> getMetricDefinitions(String metricName) {
+        return metricsByName.getOrDefault(metricName, List.of());
+    }
+
     public Set<ConsumerId> getAllConsumers() {
         return unmodifiableSet(consumerMetrics.keySet());
     }
@@ -70,6 +83,12 @@ public class MetricsConsumers {
         return Collections.unmodifiableMap(consumersByMetric);
     }
 
+    private static Map<String, List<Consumer.Metric>> createMetricsByName(Set<Consumer.Metric> metrics) {
+        Map<String, List<Consumer.Metric>> metricsByName = new HashMap<>();
+        metrics.forEach(metric -> metricsByName.computeIfAbsent(metric.name(), unused -> new ArrayList<>()).add(metric));
+        return Collections.unmodifiableMap(metricsByName);
+    }
+
     public static <T, K, U> Collector<T, ?, Map<K, U>> toUnmodifiableLinkedMap(Function<? super T, ? extends K> keyMapper,
                                                                                 Function<? super T, ? extends U> valueMapper) {
         return collectingAndThen(toLinkedMap(keyMapper, valueMapper), Collections::unmodifiableMap);
@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static ai.vespa.metricsproxy.metric.dimensions.PublicDimensions.INTERNAL_SERVICE_ID;
 import static ai.vespa.metricsproxy.metric.model.ConsumerId.toConsumerId;
@@ -125,7 +124,7 @@ public class VespaMetrics {
         Metrics configuredServiceMetrics = new Metrics();
         configuredServiceMetrics.setTimeStamp(getMostRecentTimestamp(allServiceMetrics));
         for (Metric candidate : allServiceMetrics.getMetrics()) {
-            getConfiguredMetrics(candidate.getName(), consumersByMetric.keySet()).forEach(
+            metricsConsumers.getMetricDefinitions(candidate.getName()).forEach(
                     configuredMetric -> configuredServiceMetrics.add(
                             metricWithConfigProperties(candidate, configuredMetric, consumersByMetric)));
         }
@@ -167,16 +166,6 @@ public class VespaMetrics {
         return metric;
     }
 
-    /**
-     * Returns all configured metrics (for any consumer) that have the given id as 'name'.
-     */
-    private static Set<ConsumersConfig.Consumer.Metric> getConfiguredMetrics(String id,
-                                                                             Set<ConsumersConfig.Consumer.Metric> configuredMetrics) {
-        return configuredMetrics.stream()
-                .filter(m -> m.name().equals(id))
-                .collect(Collectors.toSet());
-    }
-
     private Optional<MetricsPacket.Builder> getSystemMetrics(VespaService service) {
         Metrics systemMetrics = service.getSystemMetrics();
         if (systemMetrics.size() == 0) return Optional.empty();
@@ -1,17 +1,32 @@
 // Copyright 2020 Oath Inc. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.metricsproxy.metric.model;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author gjoranv
  */
 public class DimensionId {
 
+    private static final int maxInternedIds = 10000;
+    private static final Map<String, DimensionId> ids = new ConcurrentHashMap<>();
+
     public final String id;
     private DimensionId(String id) { this.id = id; }
 
-    public static DimensionId toDimensionId(String id) { return new DimensionId(id); }
+    /** Returns the id with the given name, which is shared with other users of the same id unless there are very many ids */
+    public static DimensionId toDimensionId(String id) {
+        DimensionId interned = interned(id);
+        return interned != null ? interned : new DimensionId(id);
+    }
+
+    private static DimensionId interned(String id) {
+        DimensionId existing = ids.get(id);
+        if (existing != null || ids.size() >= maxInternedIds) return existing;
+        return ids.computeIfAbsent(id, DimensionId::new);
+    }
 
     @Override
     public boolean equals(Object o) {
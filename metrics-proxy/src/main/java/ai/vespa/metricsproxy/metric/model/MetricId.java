@@ -1,17 +1,32 @@
 // Copyright 2020 Oath Inc. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.metricsproxy.metric.model;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author gjoranv
  */
 public class MetricId {
 
+    private static final int maxInternedIds = 10000;
+    private static final Map<String, MetricId> ids = new ConcurrentHashMap<>();
+
     public final String id;
     private MetricId(String id) { this.id = id; }
 
-    public static MetricId toMetricId(String id) { return new MetricId(id); }
+    /** Returns the id with the given name, which is shared with other users of the same id unless there are very many ids */
+    public static MetricId toMetricId(String id) {
+        MetricId interned = interned(id);
+        return interned != null ? interned : new MetricId(id);
+    }
+
+    private static MetricId interned(String id) {
+        MetricId existing = ids.get(id);
+        if (existing != null || ids.size() >= maxInternedIds) return existing;
+        return ids.computeIfAbsent(id, MetricId::new);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -4,12 +4,17 @@ package ai.vespa.metricsproxy.service;
 import ai.vespa.util.http.VespaHttpClientBuilder;
 import java.util.logging.Level;
 import com.yahoo.yolean.Exceptions;
+import org.apache.http.HttpEntity;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.BasicResponseHandler;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.logging.Logger;
 
@@ -48,6 +53,22 @@ public abstract class HttpMetricFetcher {
         return httpClient.execute(new HttpGet(url), new BasicResponseHandler());
     }
 
+    /** Returns the result of parsing the response body as it is read, without reading it into a string first */
+    <T> T getJson(ResponseParser<T> parser) throws IOException {
+        log.log(Level.FINE, "Connecting to url " + url + " for service '" + service + "'");
+        return httpClient.execute(new HttpGet(url), response -> {
+            StatusLine status = response.getStatusLine();
+            HttpEntity entity = response.getEntity();
+            if (status.getStatusCode() >= 300) {
+                EntityUtils.consume(entity);
+                throw new HttpResponseException(status.getStatusCode(), status.getReasonPhrase());
+            }
+            try (InputStream in = entity == null ? InputStream.nullInputStream() : entity.getContent()) {
+                return parser.parse(in);
+            }
+        });
+    }
+
     public String toString() {
         return this.getClass().getSimpleName() + " using " + url;
     }
@@ -62,6 +83,11 @@ public abstract class HttpMetricFetcher {
                            Exceptions.toMessageString(e), timesFetched);
     }
 
+    void handleException(Exception e, int timesFetched) {
+        logMessage("Unable to parse json for service '" + service + "': " +
+                           Exceptions.toMessageString(e), timesFetched);
+    }
+
     private void logMessage(String message, int timesFetched) {
         if (service.isAlive() && timesFetched > 5) {
             log.log(Level.INFO, message);
@@ -88,4 +114,12 @@ public abstract class HttpMetricFetcher {
                 .build();
     }
 
+    /** Parses a response body read from the given stream */
+    @FunctionalInterface
+    interface ResponseParser<T> {
+
+        T parse(InputStream in) throws IOException;
+
+    }
+
 }
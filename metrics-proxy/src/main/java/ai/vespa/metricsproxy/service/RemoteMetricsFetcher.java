@@ -4,26 +4,31 @@ package ai.vespa.metricsproxy.service;
 import ai.vespa.metricsproxy.metric.Metric;
 import ai.vespa.metricsproxy.metric.Metrics;
 import ai.vespa.metricsproxy.metric.model.DimensionId;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import static ai.vespa.metricsproxy.metric.model.DimensionId.toDimensionId;
 
 /**
- * Fetch metrics for a given vespa service
+ * Fetch metrics for a given vespa service.
+ * The response is parsed as it is read from the connection, without building a string or a tree of it first.
  *
  * @author Jo Kristian Bergum
  */
 public class RemoteMetricsFetcher extends HttpMetricFetcher {
 
-    private static final ObjectMapper jsonMapper = new ObjectMapper();
+    private static final JsonFactory jsonFactory = new JsonFactory();
 
     final static String METRICS_PATH = STATE_PATH + "metrics";
 
@@ -35,23 +40,27 @@ public class RemoteMetricsFetcher extends HttpMetricFetcher {
      * Connect to remote service over http and fetch metrics
      */
     public Metrics getMetrics(int fetchCount) {
-        String data = "{}";
         try {
-            data = getJson();
+            return getJson(in -> {
+                try (JsonParser parser = jsonFactory.createParser(in)) {
+                    return parse(parser);
+                }
+            });
+        } catch (JsonParseFailure e) {
+            handleException(e.getCause(), fetchCount);
         } catch (IOException e) {
             logMessageNoResponse(errMsgNoResponse(e), fetchCount);
         }
-
-        return createMetrics(data, fetchCount);
+        return new Metrics();
     }
 
     /**
-     * Connect to remote service over http and fetch metrics
+     * Parse the given metrics data
      */
     Metrics createMetrics(String data, int fetchCount) {
         Metrics remoteMetrics = new Metrics();
-        try {
-            remoteMetrics = parse(data);
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            remoteMetrics = parse(parser);
         } catch (Exception e) {
             handleException(e, data, fetchCount);
         }
@@ -59,76 +68,146 @@ public class RemoteMetricsFetcher extends HttpMetricFetcher {
         return remoteMetrics;
     }
 
-    private Metrics parse(String data) throws IOException {
-        JsonNode o = jsonMapper.readTree(data);
-        if (!(o.has("metrics"))) {
-            return new Metrics(); //empty
+    /**
+     * Parses the given metrics response, wrapping any failure to parse it in a {@link JsonParseFailure},
+     * while failures to read it are thrown as they are.
+     */
+    private static Metrics parse(JsonParser parser) throws IOException {
+        try {
+            return parseMetricsResponse(parser);
+        } catch (JsonProcessingException | RuntimeException e) {
+            throw new JsonParseFailure(e);
         }
+    }
 
-        JsonNode metrics = o.get("metrics");
-        ArrayNode values;
-        long timestamp;
+    private static Metrics parseMetricsResponse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) throw new JsonParseException(parser, "Expected a JSON object");
 
-        try {
-            JsonNode snapshot = metrics.get("snapshot");
-            timestamp = snapshot.get("to").asLong();
-            values = (ArrayNode) metrics.get("values");
-        } catch (Exception e) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (field.equals("metrics") && parser.currentToken() == JsonToken.START_OBJECT)
+                return parseMetrics(parser);
+            parser.skipChildren();
+        }
+        return new Metrics(); // empty
+    }
+
+    private static Metrics parseMetrics(JsonParser parser) throws IOException {
+        Long timestamp = null;
+        TokenBuffer values = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (field.equals("snapshot") && parser.currentToken() == JsonToken.START_OBJECT) {
+                timestamp = parseSnapshotEnd(parser);
+            }
+            else if (field.equals("values") && parser.currentToken() == JsonToken.START_ARRAY) {
+                if (timestamp != null)
+                    return parseValues(parser, timestamp);
+                // The snapshot normally precedes the values, which are buffered if it does not
+                values = new TokenBuffer(parser);
+                values.copyCurrentStructure(parser);
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        if (timestamp == null || values == null) {
             // snapshot might not have been produced. Do not throw exception into log
             return new Metrics();
         }
+        try (JsonParser valuesParser = values.asParser()) {
+            valuesParser.nextToken();
+            return parseValues(valuesParser, timestamp);
+        }
+    }
+
+    private static Long parseSnapshotEnd(JsonParser parser) throws IOException {
+        Long to = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (field.equals("to") && parser.currentToken().isNumeric())
+                to = parser.getValueAsLong();
+            else
+                parser.skipChildren();
+        }
+        return to;
+    }
+
+    private static Metrics parseValues(JsonParser parser, long timestamp) throws IOException {
         long now = System.currentTimeMillis() / 1000;
         timestamp = Metric.adjustTime(timestamp, now);
         Metrics m = new Metrics(timestamp);
 
-        Map<DimensionId, String> noDims = Collections.emptyMap();
-        Map<String, Map<DimensionId, String>> uniqueDimensions = new HashMap<>();
-        for (int i = 0; i < values.size(); i++) {
-            JsonNode metric = values.get(i);
-            String name = metric.get("name").textValue();
+        Map<Map<DimensionId, String>, Map<DimensionId, String>> uniqueDimensions = new HashMap<>();
+        List<String> aggregators = new ArrayList<>();
+        List<Number> aggregatorValues = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
             String description = "";
-
-            if (metric.has("description")) {
-                description = metric.get("description").textValue();
-            }
-
-            Map<DimensionId, String> dim = noDims;
-            if (metric.has("dimensions")) {
-                JsonNode dimensions = metric.get("dimensions");
-                StringBuilder sb = new StringBuilder();
-                for (Iterator<?> it = dimensions.fieldNames(); it.hasNext(); ) {
-                    String k = (String) it.next();
-                    String v = dimensions.get(k).asText();
-                    sb.append(toDimensionId(k)).append(v);
-                }
-                if ( ! uniqueDimensions.containsKey(sb.toString())) {
-                    dim = new HashMap<>();
-                    for (Iterator<?> it = dimensions.fieldNames(); it.hasNext(); ) {
-                        String k = (String) it.next();
-                        String v = dimensions.get(k).textValue();
-                        dim.put(toDimensionId(k), v);
-                    }
-                    uniqueDimensions.put(sb.toString(), Collections.unmodifiableMap(dim));
+            Map<DimensionId, String> dim = Collections.emptyMap();
+            aggregators.clear();
+            aggregatorValues.clear();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "name": name = parser.getValueAsString(); break;
+                    case "description": description = parser.getValueAsString(); break;
+                    case "dimensions": dim = parseDimensions(parser, uniqueDimensions); break;
+                    case "values": parseAggregates(parser, aggregators, aggregatorValues); break;
+                    default: parser.skipChildren();
                 }
-                dim = uniqueDimensions.get(sb.toString());
             }
+            if (name == null) throw new IllegalArgumentException("Metric name is missing");
 
-            JsonNode aggregates = metric.get("values");
-            for (Iterator<?> it = aggregates.fieldNames(); it.hasNext(); ) {
-                String aggregator = (String) it.next();
-                JsonNode aggregatorValue = aggregates.get(aggregator);
-                if (aggregatorValue == null) {
-                    throw new IllegalArgumentException("Value for aggregator '" + aggregator + "' is missing");
-                }
-                Number value = aggregatorValue.numberValue();
-                if (value == null) {
-                    throw new IllegalArgumentException("Value for aggregator '" + aggregator + "' is not a number");
-                }
-                StringBuilder metricName = (new StringBuilder()).append(name).append(".").append(aggregator);
-                m.add(new Metric(metricName.toString(), value, timestamp, dim, description));
+            for (int i = 0; i < aggregators.size(); i++)
+                m.add(new Metric(name + "." + aggregators.get(i), aggregatorValues.get(i), timestamp, dim, description));
+        }
+        return m;
+    }
+
+    private static Map<DimensionId, String> parseDimensions(JsonParser parser,
+                                                            Map<Map<DimensionId, String>, Map<DimensionId, String>> uniqueDimensions)
+            throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Collections.emptyMap();
+        }
+        Map<DimensionId, String> dim = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            DimensionId key = toDimensionId(parser.getCurrentName());
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY)
+                parser.skipChildren();
+            else
+                dim.put(key, parser.getValueAsString());
+        }
+        return uniqueDimensions.computeIfAbsent(dim, Collections::unmodifiableMap);
+    }
+
+    private static void parseAggregates(JsonParser parser, List<String> aggregators, List<Number> values) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) throw new IllegalArgumentException("Metric values are missing");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String aggregator = parser.getCurrentName();
+            if ( ! parser.nextToken().isNumeric()) {
+                throw new IllegalArgumentException("Value for aggregator '" + aggregator + "' is not a number");
             }
+            aggregators.add(aggregator);
+            values.add(parser.getNumberValue());
         }
+    }
+
+    /** Signals that a response was received, but could not be parsed */
+    private static class JsonParseFailure extends IOException {
+
+        JsonParseFailure(Exception cause) { super(cause); }
+
+        @Override
+        public synchronized Exception getCause() { return (Exception) super.getCause(); }
 
-        return m;
     }
+
 }
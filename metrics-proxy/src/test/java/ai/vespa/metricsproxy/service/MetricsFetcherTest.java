@@ -5,7 +5,11 @@ import ai.vespa.metricsproxy.TestUtil;
 import ai.vespa.metricsproxy.metric.Metrics;
 import org.junit.Test;
 
+import java.io.IOException;
+
+import static ai.vespa.metricsproxy.metric.model.DimensionId.toDimensionId;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -25,6 +29,58 @@ public class MetricsFetcherTest {
         assertThat(metrics.getTimeStamp(), is(1334134700L));
     }
 
+    @Test
+    public void testMetricsAreFetchedFromService() throws IOException {
+        MockHttpServer server = new MockHttpServer(TestUtil.getFileContents("metrics-state.json"), RemoteMetricsFetcher.METRICS_PATH);
+        try {
+            RemoteMetricsFetcher fetcher = new RemoteMetricsFetcher(new DummyService(0, "dummy/id/0"), server.port());
+            Metrics metrics = fetcher.getMetrics(0);
+            assertThat(metrics.size(), is(10));
+            assertThat(metrics.getMetric("query_hits.count").getValue().intValue(), is(28));
+            assertThat(metrics.getTimeStamp(), is(1334134700L));
+        }
+        finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testSnapshotAfterValues() {
+        String jsonData = "{\"metrics\": {" +
+                          "  \"values\": [" +
+                          "    {\"name\": \"queries\", \"values\": {\"count\": 28, \"rate\": 0.4667}, \"dimensions\": {\"searcherid\": \"x\"}}," +
+                          "    {\"dimensions\": {\"searcherid\": \"x\"}, \"values\": {\"count\": 3}, \"name\": \"hits\"}" +
+                          "  ]," +
+                          "  \"snapshot\": {\"from\": 1334134640.089, \"to\": 1334134700.088}" +
+                          "}}";
+        RemoteMetricsFetcher fetcher = new RemoteMetricsFetcher(new DummyService(0, "dummy/id/0"), port);
+        Metrics metrics = fetcher.createMetrics(jsonData, 0);
+        assertThat(metrics.size(), is(3));
+        assertThat(metrics.getMetric("hits.count").getValue().intValue(), is(3));
+        assertThat(metrics.getMetric("queries.rate").getValue().doubleValue(), is(0.4667));
+        assertThat(metrics.getTimeStamp(), is(1334134700L));
+        assertSame(metrics.getMetric("hits.count").getDimensions(), metrics.getMetric("queries.count").getDimensions());
+    }
+
+    @Test
+    public void testNonScalarDimensionValuesAreSkipped() {
+        String jsonData = "{\"metrics\": {" +
+                          "  \"snapshot\": {\"from\": 1334134640.089, \"to\": 1334134700.088}," +
+                          "  \"values\": [" +
+                          "    {\"name\": \"queries\", \"values\": {\"count\": 28}, " +
+                          "     \"dimensions\": {\"nested\": {\"a\": {\"b\": 1}}, \"searcherid\": \"x\", \"list\": [1, [2]]}}," +
+                          "    {\"name\": \"hits\", \"values\": {\"count\": 3}, \"dimensions\": {\"searcherid\": \"y\"}}" +
+                          "  ]" +
+                          "}}";
+        RemoteMetricsFetcher fetcher = new RemoteMetricsFetcher(new DummyService(0, "dummy/id/0"), port);
+        Metrics metrics = fetcher.createMetrics(jsonData, 0);
+        assertThat(metrics.size(), is(2));
+        assertThat(metrics.getMetric("queries.count").getValue().intValue(), is(28));
+        assertThat(metrics.getMetric("queries.count").getDimensions().size(), is(1));
+        assertThat(metrics.getMetric("queries.count").getDimensions().get(toDimensionId("searcherid")), is("x"));
+        assertThat(metrics.getMetric("hits.count").getDimensions().get(toDimensionId("searcherid")), is("y"));
+    }
+
     @Test
     public void testEmptyJson() {
         String  jsonData = "{}";
@@ -9,11 +9,11 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * An in-memory implementation of the metrics Db.
@@ -25,8 +25,11 @@ public class MemoryMetricsDb implements MetricsDb {
 
     private final NodeRepository nodeRepository;
 
-    /** Metric time seriest by node (hostname). Each list of metric snapshots is sorted by increasing timestamp */
-    private final Map<String, NodeTimeseries> db = new HashMap<>();
+    /**
+     * Metric snapshots by node (hostname). Each list of metric snapshots is sorted by increasing timestamp.
+     * As snapshots mostly arrive in time order they are appended, and time ranges are found by binary search.
+     */
+    private final Map<String, List<MetricSnapshot>> db = new HashMap<>();
 
     /** Lock all access for now since we modify lists inside a map */
     private final Object lock = new Object();
@@ -47,9 +50,13 @@ public class MemoryMetricsDb implements MetricsDb {
     @Override
     public List<NodeTimeseries> getNodeTimeseries(Instant startTime, Set<String> hostnames) {
         synchronized (lock) {
-            return hostnames.stream()
-                            .map(hostname -> db.getOrDefault(hostname, new NodeTimeseries(hostname, List.of())).justAfter(startTime))
-                            .collect(Collectors.toList());
+            List<NodeTimeseries> timeseries = new ArrayList<>(hostnames.size());
+            for (String hostname : hostnames) {
+                List<MetricSnapshot> snapshots = db.getOrDefault(hostname, List.of());
+                int start = NodeTimeseries.indexOfFirstAtOrAfter(snapshots, startTime);
+                timeseries.add(NodeTimeseries.ofSorted(hostname, new ArrayList<>(snapshots.subList(start, snapshots.size()))));
+            }
+            return timeseries;
         }
     }
 
@@ -58,13 +65,12 @@ public class MemoryMetricsDb implements MetricsDb {
         synchronized (lock) {
             // Each measurement is Object + long + float = 16 + 8 + 4 = 28 bytes
             // 12 hours with 1k nodes and 3 resources and 1 measurement/sec is about 5Gb
-            for (String hostname : db.keySet()) {
-                var timeseries = db.get(hostname);
-                timeseries = timeseries.justAfter(nodeRepository.clock().instant().minus(Autoscaler.maxScalingWindow()));
-                if (timeseries.isEmpty())
-                    db.remove(hostname);
-                else
-                    db.put(hostname, timeseries);
+            Instant oldestToKeep = nodeRepository.clock().instant().minus(Autoscaler.maxScalingWindow());
+            for (Iterator<List<MetricSnapshot>> it = db.values().iterator(); it.hasNext(); ) {
+                List<MetricSnapshot> snapshots = it.next();
+                snapshots.subList(0, NodeTimeseries.indexOfFirstAtOrAfter(snapshots, oldestToKeep)).clear();
+                if (snapshots.isEmpty())
+                    it.remove();
             }
         }
     }
@@ -73,15 +79,18 @@ public class MemoryMetricsDb implements MetricsDb {
     public void close() {}
 
     private void add(String hostname, MetricSnapshot snapshot) {
-        NodeTimeseries timeseries = db.get(hostname);
-        if (timeseries == null) { // new node
+        List<MetricSnapshot> snapshots = db.get(hostname);
+        if (snapshots == null) { // new node
             Optional<Node> node = nodeRepository.getNode(hostname);
             if (node.isEmpty()) return;
             if (node.get().allocation().isEmpty()) return;
-            timeseries = new NodeTimeseries(hostname, new ArrayList<>());
-            db.put(hostname, timeseries);
+            snapshots = new ArrayList<>();
+            db.put(hostname, snapshots);
         }
-        db.put(hostname, timeseries.add(snapshot));
+        if (snapshots.isEmpty() || ! snapshot.at().isBefore(snapshots.get(snapshots.size() - 1).at()))
+            snapshots.add(snapshot);
+        else
+            snapshots.add(NodeTimeseries.indexOfFirstAfter(snapshots, snapshot.at()), snapshot);
     }
 
 }
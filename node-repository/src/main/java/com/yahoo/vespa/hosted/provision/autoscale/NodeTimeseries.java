@@ -18,11 +18,24 @@ public class NodeTimeseries {
     private final String hostname;
     private final List<MetricSnapshot> snapshots;
 
-    NodeTimeseries(String hostname, List<MetricSnapshot> snapshots) {
+    private NodeTimeseries(String hostname, List<MetricSnapshot> sortedSnapshots) {
         this.hostname = hostname;
+        this.snapshots = Collections.unmodifiableList(sortedSnapshots);
+    }
+
+    /** Returns a timeseries of a sorted copy of the given snapshots */
+    static NodeTimeseries of(String hostname, List<MetricSnapshot> snapshots) {
         List<MetricSnapshot> sortedSnapshots = new ArrayList<>(snapshots);
         Collections.sort(sortedSnapshots);
-        this.snapshots = Collections.unmodifiableList(sortedSnapshots);
+        return new NodeTimeseries(hostname, sortedSnapshots);
+    }
+
+    /**
+     * Returns a timeseries which takes ownership of the given snapshots, which must be sorted by increasing time
+     * and must not be modified afterwards.
+     */
+    static NodeTimeseries ofSorted(String hostname, List<MetricSnapshot> sortedSnapshots) {
+        return new NodeTimeseries(hostname, sortedSnapshots);
     }
 
     public boolean isEmpty() { return snapshots.isEmpty(); }
@@ -36,20 +49,44 @@ public class NodeTimeseries {
     public String hostname() { return hostname; }
 
     public NodeTimeseries add(MetricSnapshot snapshot) {
-        List<MetricSnapshot> list = new ArrayList<>(snapshots);
-        list.add(snapshot);
-        return new NodeTimeseries(hostname(), list);
+        List<MetricSnapshot> list = new ArrayList<>(snapshots.size() + 1);
+        list.addAll(snapshots);
+        list.add(indexOfFirstAfter(snapshots, snapshot.at()), snapshot);
+        return ofSorted(hostname, list);
     }
 
     public NodeTimeseries filter(Predicate<MetricSnapshot> filter) {
-        return new NodeTimeseries(hostname, snapshots.stream().filter(filter).collect(Collectors.toList()));
+        return ofSorted(hostname, snapshots.stream().filter(filter).collect(Collectors.toList()));
     }
 
     public NodeTimeseries justAfter(Instant oldestTime) {
-        return new NodeTimeseries(hostname,
-                                  snapshots.stream()
-                                           .filter(snapshot -> snapshot.at().equals(oldestTime) || snapshot.at().isAfter(oldestTime))
-                                           .collect(Collectors.toList()));
+        return ofSorted(hostname, snapshots.subList(indexOfFirstAtOrAfter(snapshots, oldestTime), snapshots.size()));
+    }
+
+    /** Returns the index of the first snapshot in the given sorted list which is at or after the given time */
+    static int indexOfFirstAtOrAfter(List<MetricSnapshot> snapshots, Instant time) {
+        int low = 0, high = snapshots.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshots.get(middle).at().isBefore(time))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /** Returns the index of the first snapshot in the given sorted list which is after the given time */
+    static int indexOfFirstAfter(List<MetricSnapshot> snapshots, Instant time) {
+        int low = 0, high = snapshots.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshots.get(middle).at().isAfter(time))
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
     }
 
 }
@@ -121,7 +121,7 @@ public class QuestMetricsDb extends AbstractComponent implements MetricsDb {
             SqlExecutionContext context = newContext();
             var snapshots = getSnapshots(startTime, hostnames, compiler, context);
             return snapshots.entrySet().stream()
-                            .map(entry -> new NodeTimeseries(entry.getKey(), entry.getValue()))
+                            .map(entry -> NodeTimeseries.of(entry.getKey(), entry.getValue()))
                             .collect(Collectors.toList());
         }
         catch (SqlException e) {
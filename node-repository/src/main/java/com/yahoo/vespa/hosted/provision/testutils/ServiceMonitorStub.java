@@ -65,6 +65,13 @@ public class ServiceMonitorStub implements ServiceMonitor {
         return new ServiceModel(getAllApplicationInstances());
     }
 
+    @Override
+    public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+        if ( ! apps.containsKey(applicationId)) return Set.of();
+        return Set.of(new ApplicationInstanceReference(new TenantId(applicationId.tenant().value()),
+                                                       new ApplicationInstanceId(applicationId.application().value())));
+    }
+
     private Map<ApplicationInstanceReference, ApplicationInstance> getAllApplicationInstances() {
         // Convert apps information to the response payload to return
         Map<ApplicationInstanceReference, ApplicationInstance> status = new HashMap<>();
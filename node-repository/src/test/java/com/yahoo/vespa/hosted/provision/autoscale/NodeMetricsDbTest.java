@@ -12,12 +12,14 @@ import com.yahoo.vespa.hosted.provision.provisioning.ProvisioningTester;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 /**
  * @author bratseth
@@ -53,6 +55,32 @@ public class NodeMetricsDbTest {
         assertEquals(23, measurementCount(db.getNodeTimeseries(clock.instant().minus(Duration.ofHours(72)), Set.of(node0))));
     }
 
+    @Test
+    public void testSnapshotsOutOfOrder() {
+        ProvisioningTester tester = new ProvisioningTester.Builder().build();
+        tester.makeReadyHosts(10, new NodeResources(10, 100, 1000, 10))
+              .activateTenantHosts();
+        ApplicationId app1 = ProvisioningTester.applicationId("app1");
+        var hosts =
+                tester.activate(app1,
+                                ClusterSpec.request(ClusterSpec.Type.container, ClusterSpec.Id.from("test")).vespaVersion("7.0").build(),
+                                Capacity.from(new ClusterResources(2, 1, new NodeResources(1, 4, 10, 1))));
+        String node0 = hosts.iterator().next().hostname();
+
+        ManualClock clock = tester.clock();
+        MetricsDb db = MetricsDb.createTestInstance(tester.nodeRepository());
+        Instant start = clock.instant();
+        for (int minutes : List.of(0, 10, 5, 20, 15, 15))
+            db.add(List.of(new Pair<>(node0, new MetricSnapshot(start.plus(Duration.ofMinutes(minutes)), minutes, 0, 0, 0, true, false))));
+
+        NodeTimeseries timeseries = db.getNodeTimeseries(start.plus(Duration.ofMinutes(5)), Set.of(node0)).get(0);
+        assertEquals(5, timeseries.size());
+        for (int i = 1; i < timeseries.size(); i++)
+            assertFalse(timeseries.get(i).at().isBefore(timeseries.get(i - 1).at()));
+        assertEquals(start.plus(Duration.ofMinutes(5)), timeseries.get(0).at());
+        assertEquals(20, timeseries.get(4).cpu(), 0);
+    }
+
     private int measurementCount(List<NodeTimeseries> measurements) {
         return measurements.stream().mapToInt(m -> m.size()).sum();
     }
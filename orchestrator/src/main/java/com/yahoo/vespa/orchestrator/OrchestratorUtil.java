@@ -15,11 +15,9 @@ import com.yahoo.vespa.applicationmodel.TenantId;
 import com.yahoo.vespa.service.monitor.ServiceMonitor;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toSet;
@@ -90,21 +88,17 @@ public class OrchestratorUtil {
             ServiceMonitor serviceMonitor)
             throws ApplicationIdNotFoundException {
 
-        Set<ApplicationInstanceReference> references = serviceMonitor.getAllApplicationInstanceReferences();
-        List<ApplicationInstanceReference> referencesWithId = references.stream()
-                .filter(a -> OrchestratorUtil.toApplicationId(a).equals(applicationid))
-                .collect(Collectors.toList());
-
-        if (referencesWithId.size() > 1) {
-            String msg = String.format("ApplicationId '%s' was not unique but mapped to '%s'", applicationid, referencesWithId);
+        Set<ApplicationInstanceReference> references = serviceMonitor.getApplicationInstanceReferences(applicationid);
+        if (references.size() > 1) {
+            String msg = String.format("ApplicationId '%s' was not unique but mapped to '%s'", applicationid, references);
             throw new ApplicationIdNotFoundException(msg);
         }
 
-        if (referencesWithId.size() == 0) {
+        if (references.isEmpty()) {
             throw new ApplicationIdNotFoundException();
         }
 
-        return referencesWithId.get(0);
+        return references.iterator().next();
     }
 
     public static ApplicationId toApplicationId(ApplicationInstanceReference appRef) {
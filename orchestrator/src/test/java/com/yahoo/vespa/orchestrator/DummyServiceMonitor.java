@@ -2,6 +2,7 @@
 package com.yahoo.vespa.orchestrator;
 
 
+import com.yahoo.config.provision.ApplicationId;
 import com.yahoo.vespa.applicationmodel.ApplicationInstance;
 import com.yahoo.vespa.applicationmodel.ApplicationInstanceId;
 import com.yahoo.vespa.applicationmodel.ApplicationInstanceReference;
@@ -142,6 +143,13 @@ public class DummyServiceMonitor implements ServiceMonitor, AntiServiceMonitor {
                 new ApplicationInstanceReference(a.tenantId(),a.applicationInstanceId())).collect(Collectors.toSet());
     }
 
+    @Override
+    public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+        return getAllApplicationInstanceReferences().stream()
+                .filter(reference -> OrchestratorUtil.toApplicationId(reference).equals(applicationId))
+                .collect(Collectors.toSet());
+    }
+
     @Override
     public Optional<ApplicationInstance> getApplication(HostName hostname) {
         for (ApplicationInstance app : apps) {
@@ -431,7 +431,17 @@ public class OrchestratorImplTest {
                                                hostName,
                                                ServiceStatus.NOT_CHECKED)))));
 
-        ServiceMonitor serviceMonitor = () -> new ServiceModel(Map.of(reference, applicationInstance));
+        ServiceMonitor serviceMonitor = new ServiceMonitor() {
+            @Override
+            public ServiceModel getServiceModelSnapshot() {
+                return new ServiceModel(Map.of(reference, applicationInstance));
+            }
+
+            @Override
+            public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+                return OrchestratorUtil.toApplicationId(reference).equals(applicationId) ? Set.of(reference) : Set.of();
+            }
+        };
 
         orchestrator = new OrchestratorImpl(new HostedVespaPolicy(new HostedVespaClusterPolicy(flagSource), clusterControllerClientFactory, applicationApiFactory),
                                             clusterControllerClientFactory,
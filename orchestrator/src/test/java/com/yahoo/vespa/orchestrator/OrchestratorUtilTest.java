@@ -8,9 +8,15 @@ import com.yahoo.config.provision.TenantName;
 import com.yahoo.vespa.applicationmodel.ApplicationInstanceId;
 import com.yahoo.vespa.applicationmodel.ApplicationInstanceReference;
 import com.yahoo.vespa.applicationmodel.TenantId;
+import com.yahoo.vespa.service.monitor.ServiceModel;
+import com.yahoo.vespa.service.monitor.ServiceMonitor;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author smorgrav
  */
@@ -25,6 +31,10 @@ public class OrchestratorUtilTest {
             new TenantId("test-tenant-id"),
             new ApplicationInstanceId("application:prod:utopia-1:instance"));
 
+    private static final ApplicationInstanceReference APPREF_1_OTHER_ZONE = new ApplicationInstanceReference(
+            new TenantId("test-tenant-id"),
+            new ApplicationInstanceId("application:prod:utopia-2:instance"));
+
     private static final ApplicationInstanceReference APPREF_2 = new ApplicationInstanceReference(
             new TenantId("hosted-vespa"),
             new ApplicationInstanceId("zone-config-servers"));
@@ -59,4 +69,44 @@ public class OrchestratorUtilTest {
                 ApplicationName.from("zone-config-servers"),
                 InstanceName.defaultName()),appId);
     }
+
+    @Test
+    public void applicationid_mapped_to_multiple_references_is_not_found() {
+        ApplicationId appId = OrchestratorUtil.toApplicationId(APPREF_1);
+        Assert.assertEquals(appId, OrchestratorUtil.toApplicationId(APPREF_1_OTHER_ZONE));
+        ServiceMonitor serviceMonitor = serviceMonitorWith(Set.of(APPREF_1, APPREF_1_OTHER_ZONE));
+
+        try {
+            OrchestratorUtil.toApplicationInstanceReference(appId, serviceMonitor);
+            Assert.fail("Expected ApplicationIdNotFoundException");
+        }
+        catch (ApplicationIdNotFoundException e) {
+            Assert.assertTrue(e.getMessage().startsWith("ApplicationId '" + appId + "' was not unique"));
+        }
+    }
+
+    @Test(expected = ApplicationIdNotFoundException.class)
+    public void unknown_applicationid_is_not_found() throws Exception {
+        OrchestratorUtil.toApplicationInstanceReference(APPID_1, serviceMonitorWith(Set.of(APPREF_2)));
+    }
+
+    /** Returns a service monitor which knows only the given references */
+    private static ServiceMonitor serviceMonitorWith(Set<ApplicationInstanceReference> references) {
+        return new ServiceMonitor() {
+            @Override
+            public ServiceModel getServiceModelSnapshot() {
+                return new ServiceModel(Map.of());
+            }
+
+            @Override
+            public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+                Set<ApplicationInstanceReference> matching = new HashSet<>();
+                for (ApplicationInstanceReference reference : references)
+                    if (OrchestratorUtil.toApplicationId(reference).equals(applicationId))
+                        matching.add(reference);
+                return matching;
+            }
+        };
+    }
+
 }
@@ -1,6 +1,7 @@
 // Copyright 2017 Yahoo Holdings. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.orchestrator.model;
 
+import com.yahoo.config.provision.ApplicationId;
 import com.yahoo.jdisc.Metric;
 import com.yahoo.jdisc.test.TestTimer;
 import com.yahoo.test.ManualClock;
@@ -23,6 +24,7 @@ import com.yahoo.vespa.orchestrator.OrchestrationException;
 import com.yahoo.vespa.orchestrator.Orchestrator;
 import com.yahoo.vespa.orchestrator.OrchestratorContext;
 import com.yahoo.vespa.orchestrator.OrchestratorImpl;
+import com.yahoo.vespa.orchestrator.OrchestratorUtil;
 import com.yahoo.vespa.orchestrator.controller.ClusterControllerClientFactory;
 import com.yahoo.vespa.orchestrator.controller.ClusterControllerClientFactoryMock;
 import com.yahoo.vespa.orchestrator.policy.HostedVespaClusterPolicy;
@@ -59,7 +61,19 @@ class ModelTestUtils {
     private final Map<ApplicationInstanceReference, ApplicationInstance> applications = new HashMap<>();
     private final ClusterControllerClientFactory clusterControllerClientFactory = new ClusterControllerClientFactoryMock();
     private final Map<HostName, HostStatus> hostStatusMap = new HashMap<>();
-    private final ServiceMonitor serviceMonitor = () -> new ServiceModel(applications);
+    private final ServiceMonitor serviceMonitor = new ServiceMonitor() {
+        @Override
+        public ServiceModel getServiceModelSnapshot() {
+            return new ServiceModel(applications);
+        }
+
+        @Override
+        public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+            return applications.keySet().stream()
+                               .filter(reference -> OrchestratorUtil.toApplicationId(reference).equals(applicationId))
+                               .collect(Collectors.toSet());
+        }
+    };
     private final StatusService statusService = new ZkStatusService(
             new MockCurator(),
             mock(Metric.class),
@@ -2,6 +2,7 @@
 package com.yahoo.vespa.orchestrator.resources;
 
 import com.google.common.util.concurrent.UncheckedTimeoutException;
+import com.yahoo.config.provision.ApplicationId;
 import com.yahoo.jdisc.Metric;
 import com.yahoo.jdisc.test.TestTimer;
 import com.yahoo.vespa.applicationmodel.ApplicationInstance;
@@ -61,6 +62,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.yahoo.vespa.orchestrator.TestUtil.makeServiceClusterSet;
 import static org.junit.Assert.assertEquals;
@@ -104,6 +106,11 @@ public class HostResourceTest {
         public ServiceModel getServiceModelSnapshot() {
             return emptyServiceModel;
         }
+
+        @Override
+        public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+            return Set.of();
+        }
     };
 
     private static class AlwaysAllowPolicy implements Policy {
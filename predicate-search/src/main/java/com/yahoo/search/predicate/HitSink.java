@@ -0,0 +1,21 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Receives the hits of a predicate search as primitives, which avoids allocating a {@link Hit} per hit.
+ */
+@Beta
+@FunctionalInterface
+public interface HitSink {
+
+    /**
+     * Called for each hit.
+     *
+     * @param docId the id of the matching document
+     * @param subquery a bitmap specifying which subqueries the hit is for
+     */
+    void accept(int docId, long subquery);
+
+}
@@ -6,13 +6,22 @@ import com.yahoo.document.predicate.Predicate;
 import com.yahoo.search.predicate.index.*;
 import com.yahoo.search.predicate.index.conjunction.ConjunctionHit;
 import com.yahoo.search.predicate.index.conjunction.ConjunctionIndex;
+import com.yahoo.search.predicate.serialization.MappedFileInputStream;
 import com.yahoo.search.predicate.serialization.SerializationHelper;
 
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
@@ -28,9 +37,16 @@ import java.util.stream.Stream;
  * To perform a search, create a {@link Searcher} and call its {@link Searcher#search(PredicateQuery)}
  * method, which returns a stream of {@link Hit} objects,
  * each of which contains a document id and a 64-bit bitmap specifying which subqueries the hit is for.
+ * Use {@link Searcher#search(PredicateQuery, HitSink)} to receive the hits as primitives instead, and
+ * {@link Searcher#search(PredicateQuery, HitSink, ExecutorService, int)} to search partitions of the
+ * document id space in parallel.
  * </p><p>
  * Note that the {@link PredicateIndex} is thread-safe, but a {@link Searcher} is not.
  * Each thread <strong>must</strong> use its own searcher.
+ * </p><p>
+ * An index is immutable, so a new index can replace one in use by swapping a reference to it,
+ * while searchers of the old index complete their queries.
+ * Use {@link #writeToFile(Path)} and {@link #fromFile(Path)} to store and load an index.
  * </p>
  * @author Magnar Nedland
  * @author bjorncs
@@ -111,6 +127,33 @@ public class PredicateIndex {
         conjunctionIndex.writeToOutputStream(out);
     }
 
+    /**
+     * Writes this index to the given file. The index is written to a temporary file which is then
+     * atomically moved to the given path, so the file is never seen partially written by {@link #fromFile(Path)}.
+     */
+    public void writeToFile(Path file) throws IOException {
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                writeToOutputStream(out);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeToFile(Path)} or {@link #writeToOutputStream(DataOutputStream)}.
+     * The file is memory mapped and read in bulk from the OS page cache.
+     */
+    public static PredicateIndex fromFile(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new MappedFileInputStream(file))) {
+            return fromInputStream(in);
+        }
+    }
+
     public static PredicateIndex fromInputStream(DataInputStream in) throws IOException {
         int version = in.readInt();
         if (version != SERIALIZATION_FORMAT_VERSION) {
@@ -160,6 +203,94 @@ public class PredicateIndex {
          * @return A stream of hits.
          */
         public Stream<Hit> search(PredicateQuery query) {
+            List<PostingList> postingLists = postingLists(query, conjunctionIndexSearcher.search(query));
+            countPostingLists(postingLists);
+            return new PredicateSearch(
+                    postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd).stream()
+                    // Map to external id. Note that internal id for first document is 1.
+                    .map(hit -> new Hit(internalToExternalIdMapping[hit.getDocId()], hit.getSubquery()));
+        }
+
+        /**
+         * Passes the hits for the given query to the given sink, in the same order as {@link #search(PredicateQuery)}.
+         *
+         * @param query Specifies the boolean variables that are true.
+         * @param sink Receives the external document id and subquery bitmap of each hit.
+         */
+        public void search(PredicateQuery query, HitSink sink) {
+            List<PostingList> postingLists = postingLists(query, conjunctionIndexSearcher.search(query));
+            countPostingLists(postingLists);
+            new PredicateSearch(postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd)
+                    .forEachHit((docId, subquery) -> sink.accept(internalToExternalIdMapping[docId], subquery));
+        }
+
+        /**
+         * Passes the hits for the given query to the given sink, in the same order as {@link #search(PredicateQuery)},
+         * after searching the given number of disjoint document id ranges in parallel.
+         * The first range is searched by the calling thread, and the others by the given executor.
+         * The sink is only called by the calling thread.
+         *
+         * @param query Specifies the boolean variables that are true.
+         * @param sink Receives the external document id and subquery bitmap of each hit.
+         * @param executor Searches all ranges but the first.
+         * @param partitions The number of document id ranges to search in parallel.
+         */
+        public void search(PredicateQuery query, HitSink sink, ExecutorService executor, int partitions) {
+            int nDocuments = internalToExternalIdMapping.length;
+            partitions = Math.max(1, Math.min(partitions, nDocuments));
+            List<ConjunctionHit> conjunctionHits = conjunctionIndexSearcher.search(query);
+            List<PostingList> postingLists = postingLists(query, conjunctionHits);
+            countPostingLists(postingLists);
+
+            // Each range needs its own posting lists, as these keep the state of the search
+            List<Future<HitBuffer>> futures = new ArrayList<>(partitions - 1);
+            for (int i = 1; i < partitions; i++) {
+                List<PostingList> rangePostingLists = postingLists(query, conjunctionHits);
+                int begin = partitionStart(i, partitions, nDocuments);
+                int end = partitionStart(i + 1, partitions, nDocuments);
+                futures.add(executor.submit(() -> search(rangePostingLists, begin, end)));
+            }
+            List<HitBuffer> buffers = new ArrayList<>(partitions);
+            RuntimeException failure = null;
+            try {
+                buffers.add(search(postingLists, 0, partitionStart(1, partitions, nDocuments)));
+            }
+            catch (RuntimeException e) {
+                failure = e;
+            }
+            // Wait for all ranges also on failure, as they use the state of this searcher
+            for (Future<HitBuffer> future : futures) {
+                try {
+                    buffers.add(future.get());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (failure == null) failure = new RuntimeException("Interrupted while searching", e);
+                }
+                catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                                                                                           : new RuntimeException(e.getCause());
+                }
+            }
+            if (failure != null) throw failure;
+
+            for (HitBuffer buffer : buffers)
+                buffer.forEachHit(sink);
+        }
+
+        private HitBuffer search(List<PostingList> postingLists, int beginDocId, int endDocId) {
+            HitBuffer buffer = new HitBuffer();
+            new PredicateSearch(postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd,
+                                beginDocId, endDocId)
+                    .forEachHit((docId, subquery) -> buffer.accept(internalToExternalIdMapping[docId], subquery));
+            return buffer;
+        }
+
+        private int partitionStart(int partition, int partitions, int nDocuments) {
+            return (int) ((long) nDocuments * partition / partitions);
+        }
+
+        private List<PostingList> postingLists(PredicateQuery query, List<ConjunctionHit> conjunctionHits) {
             ArrayList<PostingList> postingLists = new ArrayList<>();
             for (PredicateQuery.Feature feature : query.getFeatures()) {
                 addIntervalPostingList(feature.featureHash, feature.subqueryBitmap, postingLists);
@@ -172,16 +303,15 @@ public class PredicateIndex {
                         (featureHash, value) -> addBoundsPostingList(featureHash, value, feature.subqueryBitmap, postingLists));
             }
             addCompressedZStarPostingList(postingLists);
-            addConjunctionPostingLists(query, postingLists);
+            addConjunctionPostingLists(conjunctionHits, postingLists);
             addZeroConstraintPostingList(postingLists);
+            return postingLists;
+        }
 
+        private void countPostingLists(List<PostingList> postingLists) {
             CachedPostingListCounter counter = postingListCounter.get();
             counter.registerUsage(postingLists);
             counter.countPostingListsPerDocument(postingLists, nPostingListsForDocument);
-            return new PredicateSearch(
-                    postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd).stream()
-                    // Map to external id. Note that internal id for first document is 1.
-                    .map(hit -> new Hit(internalToExternalIdMapping[hit.getDocId()], hit.getSubquery()));
         }
 
         private void addCompressedZStarPostingList(List<PostingList> postingLists) {
@@ -206,8 +336,7 @@ public class PredicateIndex {
             }
         }
 
-        private void addConjunctionPostingLists(PredicateQuery query, List<PostingList> postingLists) {
-            List<ConjunctionHit> hits = conjunctionIndexSearcher.search(query);
+        private void addConjunctionPostingLists(List<ConjunctionHit> hits, List<PostingList> postingLists) {
             for (ConjunctionHit hit : hits) {
                 SimpleIndex.Entry e = conjunctionIntervalIndex.getPostingList(hit.conjunctionId);
                 if (e != null) {
@@ -224,4 +353,30 @@ public class PredicateIndex {
 
     }
 
+    /** Collects the hits of a search over one document id range, without creating an object per hit. */
+    private static class HitBuffer implements HitSink {
+
+        private int[] docIds = new int[16];
+        private long[] subqueries = new long[16];
+        private int size = 0;
+
+        @Override
+        public void accept(int docId, long subquery) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                subqueries = Arrays.copyOf(subqueries, size * 2);
+            }
+            docIds[size] = docId;
+            subqueries[size] = subquery;
+            ++size;
+        }
+
+        void forEachHit(HitSink sink) {
+            for (int i = 0; i < size; i++) {
+                sink.accept(docIds[i], subqueries[i]);
+            }
+        }
+
+    }
+
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.collect.Iterators;
 import com.yahoo.search.predicate.Config;
+import com.yahoo.search.predicate.HitSink;
 import com.yahoo.search.predicate.PredicateIndex;
 import com.yahoo.search.predicate.PredicateIndexBuilder;
 import com.yahoo.search.predicate.PredicateQuery;
@@ -17,13 +18,8 @@ import io.airlift.airline.Option;
 import io.airlift.airline.SingleCommand;
 
 import javax.inject.Inject;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -106,21 +102,17 @@ public class PredicateIndexBenchmark {
             output.put("Time prepare index", System.currentTimeMillis() - start);
             return index;
         } else {
-            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(args.indexFile)))) {
-                long start = System.currentTimeMillis();
-                PredicateIndex index = PredicateIndex.fromInputStream(in);
-                output.put("Time deserialize index", System.currentTimeMillis() - start);
-                return index;
-            }
+            long start = System.currentTimeMillis();
+            PredicateIndex index = PredicateIndex.fromFile(Paths.get(args.indexFile));
+            output.put("Time deserialize index", System.currentTimeMillis() - start);
+            return index;
         }
     }
 
     private static void writeIndexToFile(PredicateIndex index, String indexOutputFile) throws IOException {
-        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexOutputFile)))) {
-            long start = System.currentTimeMillis();
-            index.writeToOutputStream(out);
-            output.put("Time write index", System.currentTimeMillis() - start);
-        }
+        long start = System.currentTimeMillis();
+        index.writeToFile(Paths.get(indexOutputFile));
+        output.put("Time write index", System.currentTimeMillis() - start);
     }
 
     private static void putBenchmarkArgumentsToOutput(BenchmarkArguments args) {
@@ -128,6 +120,8 @@ public class PredicateIndexBenchmark {
         output.put("Max documents", args.maxDocuments);
         output.put("Max queries", args.maxQueries);
         output.put("Threads", args.nThreads);
+        output.put("Partitions", args.partitions);
+        output.put("Available processors", Runtime.getRuntime().availableProcessors());
         output.put("Runtime", args.runtime);
         output.put("Algorithm", args.algorithm);
         output.put("Serialized index output file", args.indexOutputFile);
@@ -140,12 +134,18 @@ public class PredicateIndexBenchmark {
 
     private static void runQueries(BenchmarkArguments args, PredicateIndex index) throws IOException {
         List<PredicateQuery> queries = parseQueries(args.queryFile, args.maxQueries, args.format);
-        long warmup1 = warmup(queries, index, args.nThreads, args.warmup / 2);
+        ExecutorService partitionExecutor = args.partitions > 1
+                ? Executors.newFixedThreadPool(args.nThreads * (args.partitions - 1))
+                : null;
+        long warmup1 = warmup(queries, index, args.nThreads, args.warmup / 2, partitionExecutor, args.partitions);
         output.put("Time warmup before building posting cache", warmup1);
         rebuildPostingListCache(index);
-        long warmup2 = warmup(queries, index, args.nThreads, args.warmup / 2);
+        long warmup2 = warmup(queries, index, args.nThreads, args.warmup / 2, partitionExecutor, args.partitions);
         output.put("Time warmup after building posting cache", warmup2);
-        searchIndex(queries, index, args.nThreads, args.runtime);
+        searchIndex(queries, index, args.nThreads, args.runtime, partitionExecutor, args.partitions);
+        if (partitionExecutor != null) {
+            partitionExecutor.shutdownNow();
+        }
     }
 
     private static void rebuildPostingListCache(PredicateIndex index) {
@@ -164,33 +164,36 @@ public class PredicateIndexBenchmark {
         return queries;
     }
 
-    private static long warmup(List<PredicateQuery> queries, PredicateIndex index, int nThreads, int warmup) {
+    private static long warmup(List<PredicateQuery> queries, PredicateIndex index, int nThreads, int warmup,
+                               ExecutorService partitionExecutor, int partitions) {
         ExecutorService executor = Executors.newFixedThreadPool(nThreads);
         Random random = new Random(42);
         for (int i = 0; i < nThreads; i++) {
             List<PredicateQuery> shuffledQueries = new ArrayList<>(queries);
             Collections.shuffle(shuffledQueries, random);
-            executor.submit(new QueryRunner(shuffledQueries, index.searcher()));
+            executor.submit(new QueryRunner(shuffledQueries, index.searcher(), partitionExecutor, partitions));
         }
         long start = System.currentTimeMillis();
         waitAndShutdown(warmup, executor);
         return System.currentTimeMillis() - start;
     }
 
-    private static void searchIndex(List<PredicateQuery> queries, PredicateIndex index, int nThreads, int runtime) {
+    private static void searchIndex(List<PredicateQuery> queries, PredicateIndex index, int nThreads, int runtime,
+                                    ExecutorService partitionExecutor, int partitions) {
         ExecutorService executor = Executors.newFixedThreadPool(nThreads);
         Random random = new Random(42);
         List<QueryRunner> runners = new ArrayList<>();
         for (int i = 0; i < nThreads; i++) {
             List<PredicateQuery> shuffledQueries = new ArrayList<>(queries);
             Collections.shuffle(shuffledQueries, random);
-            runners.add(new QueryRunner(shuffledQueries, index.searcher()));
+            runners.add(new QueryRunner(shuffledQueries, index.searcher(), partitionExecutor, partitions));
         }
         long start = System.currentTimeMillis();
         List<Future<ResultMetrics>> futureResults = runners.stream().map(executor::submit).collect(toList());
         waitAndShutdown(runtime, executor);
         long searchTime = System.currentTimeMillis() - start;
-        getResult(futureResults).writeMetrics(output, searchTime);
+        int nCores = Math.min(nThreads * partitions, Runtime.getRuntime().availableProcessors());
+        getResult(futureResults).writeMetrics(output, searchTime, nCores);
     }
 
     private static void waitAndShutdown(int warmup, ExecutorService executor) {
@@ -218,26 +221,51 @@ public class PredicateIndexBenchmark {
     private static class QueryRunner implements Callable<ResultMetrics> {
         private final List<PredicateQuery> queries;
         private final PredicateIndex.Searcher searcher;
+        private final ExecutorService partitionExecutor;
+        private final int partitions;
 
-        public QueryRunner(List<PredicateQuery> queries, PredicateIndex.Searcher seacher) {
+        public QueryRunner(List<PredicateQuery> queries, PredicateIndex.Searcher seacher,
+                           ExecutorService partitionExecutor, int partitions) {
             this.queries = queries;
             this.searcher = seacher;
+            this.partitionExecutor = partitionExecutor;
+            this.partitions = partitions;
         }
 
         @Override
         public ResultMetrics call() throws Exception {
             Iterator<PredicateQuery> iterator = Iterators.cycle(queries);
             ResultMetrics result = new ResultMetrics();
+            HitCounter counter = new HitCounter();
             while (!Thread.interrupted()) {
                 long start = System.nanoTime();
-                long hits = searcher.search(iterator.next()).count();
+                counter.hits = 0;
+                try {
+                    if (partitions > 1) {
+                        searcher.search(iterator.next(), counter, partitionExecutor, partitions);
+                    } else {
+                        searcher.search(iterator.next(), counter);
+                    }
+                } catch (RuntimeException e) {
+                    if (Thread.currentThread().isInterrupted()) break; // Interrupted while waiting for partitions
+                    throw e;
+                }
                 double latencyMilliseconds = (System.nanoTime() - start) / 1_000_000d;
-                result.registerResult(hits, latencyMilliseconds);
+                result.registerResult(counter.hits, latencyMilliseconds);
             }
             return result;
         }
     }
 
+    private static class HitCounter implements HitSink {
+        private long hits = 0;
+
+        @Override
+        public void accept(int docId, long subquery) {
+            ++hits;
+        }
+    }
+
     private static void writeOutputToStandardOut() {
         try {
             ObjectMapper objectMapper = new ObjectMapper();
@@ -256,6 +284,10 @@ public class PredicateIndexBenchmark {
         @Option(name = {"-t", "--threads"}, description = "Number of search threads")
         public int nThreads = 1;
 
+        @Option(name = {"-p", "--partitions"},
+                description = "Number of document id ranges searched in parallel for each query")
+        public int partitions = 1;
+
         @Option(name = {"-a", "--arity"}, description = "Arity")
         public int arity = 2;
 
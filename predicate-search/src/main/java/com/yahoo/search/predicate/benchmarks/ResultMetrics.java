@@ -46,9 +46,11 @@ public class ResultMetrics {
         }
     }
 
-    public void writeMetrics(Map<String, Object> metricMap, long timeSearch) {
+    public void writeMetrics(Map<String, Object> metricMap, long timeSearch, int nCores) {
         double qps = timeSearch == 0 ? 0 : (1000d * totalQueries / timeSearch);
         metricMap.put("QPS", qps);
+        metricMap.put("QPS per core", qps / nCores);
+        metricMap.put("Cores used", nCores);
         metricMap.put("Time search", timeSearch);
         metricMap.put("Total hits", totalHits);
         metricMap.put("Total queries", totalQueries);
@@ -2,13 +2,13 @@
 package com.yahoo.search.predicate.index;
 
 import com.yahoo.search.predicate.Hit;
+import com.yahoo.search.predicate.HitSink;
 import com.yahoo.search.predicate.SubqueryBitmap;
 import com.yahoo.search.predicate.utils.PrimitiveArraySorter;
 
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -31,10 +31,13 @@ public class PredicateSearch {
     private final long[] subqueryMarkers;
     private final boolean[] visited;
     private final short[] intervalEnds;
+    private final int beginDocId;
+    private final int endDocId;
 
     private short[] sortedIndexes;
     private short[] sortedIndexesMergeBuffer;
     private int nPostingLists;
+    private long hitSubquery;
 
     /**
      * Creates a search for a set of posting lists.
@@ -48,7 +51,24 @@ public class PredicateSearch {
     public PredicateSearch(
             List<PostingList> postingLists, byte[] nPostingListsForDocument,
             byte[] minFeatureIndex, short[] intervalEnds, int  highestIntervalEnd) {
+        this(postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd,
+             0, nPostingListsForDocument.length);
+    }
+
+    /**
+     * Creates a search for a set of posting lists, which only considers documents in the given docId range.
+     * Searches over disjoint ranges may run in parallel, given that each has its own posting list instances.
+     *
+     * @param beginDocId The first docId to consider.
+     * @param endDocId The docId following the last docId to consider.
+     */
+    public PredicateSearch(
+            List<PostingList> postingLists, byte[] nPostingListsForDocument,
+            byte[] minFeatureIndex, short[] intervalEnds, int  highestIntervalEnd,
+            int beginDocId, int endDocId) {
         int size = postingLists.size();
+        this.beginDocId = beginDocId;
+        this.endDocId = Math.min(endDocId, nPostingListsForDocument.length);
         this.nPostingListsForDocument = nPostingListsForDocument;
         this.minFeatureIndex = minFeatureIndex;
         this.nPostingLists = size;
@@ -84,17 +104,26 @@ public class PredicateSearch {
         return StreamSupport.stream(new PredicateSpliterator(), false);
     }
 
+    /**
+     * Passes each hit, in docId order, to the given sink without creating any objects.
+     */
+    public void forEachHit(HitSink sink) {
+        if (nPostingLists == 0) return;
+        for (int docId = seek(beginDocId); docId != -1; docId = seek(docId + 1)) {
+            sink.accept(docId, hitSubquery);
+        }
+    }
+
     private class PredicateSpliterator implements java.util.Spliterator<Hit> {
-        private int lastHit = -1;
+        private int lastHit = beginDocId - 1;
 
         @Override
         public boolean tryAdvance(Consumer<? super Hit> action) {
-            Optional<Hit> optionalHit = seek(lastHit + 1);
-            optionalHit.ifPresent(hit -> {
-                lastHit = hit.getDocId();
-                action.accept(hit);
-            });
-            return optionalHit.isPresent();
+            int docId = seek(lastHit + 1);
+            if (docId == -1) return false;
+            lastHit = docId;
+            action.accept(new Hit(docId, hitSubquery));
+            return true;
         }
 
         @Override
@@ -118,10 +147,12 @@ public class PredicateSearch {
         }
     }
 
-    private Optional<Hit> seek(int docId) {
+    /** Returns the first hit at or after the given docId, or -1 if there are none. The hit subquery is set on hits. */
+    private int seek(int docId) {
         boolean skippedToEnd = skipMinFeature(docId);
         while (nPostingLists > 0 && !skippedToEnd) {
             int docId0 = docIds[sortedIndexes[0]];
+            if (docId0 >= endDocId) break;
             int minFeature = minFeatureIndex[docId0];
             int k = minFeature > 0 ? minFeature - 1 : 0;
             int intervalEnd = Short.toUnsignedInt(intervalEnds[docId0]);
@@ -129,17 +160,18 @@ public class PredicateSearch {
                 int docIdK = docIds[sortedIndexes[k]];
                 if (docId0 == docIdK) {
                     if (evaluateHit(docId0, k, intervalEnd)) {
-                        return Optional.of(new Hit(docId0, subqueryMarkers[intervalEnd]));
+                        hitSubquery = subqueryMarkers[intervalEnd];
+                        return docId0;
                     }
                 }
             }
             skippedToEnd = skipMinFeature(docId0 + 1);
         }
-        return Optional.empty();
+        return -1;
     }
 
     private boolean skipMinFeature(int docId) {
-        int nDocuments = nPostingListsForDocument.length;
+        int nDocuments = endDocId;
         while (docId < nDocuments && minFeatureIndex[docId] > nPostingListsForDocument[docId]) {
             ++docId;
         }
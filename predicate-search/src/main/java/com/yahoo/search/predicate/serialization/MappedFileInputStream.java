@@ -0,0 +1,88 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An input stream reading a file through memory mappings of consecutive regions of it.
+ * Reads are copied directly from the OS page cache, without system calls or the per-byte
+ * synchronization of a buffered stream. Files larger than 2GB are supported.
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final long MAX_REGION_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long maxRegionSize;
+    private long regionStart = 0;
+    private MappedByteBuffer region;
+
+    public MappedFileInputStream(Path file) throws IOException {
+        this(file, MAX_REGION_SIZE);
+    }
+
+    MappedFileInputStream(Path file, long maxRegionSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.maxRegionSize = maxRegionSize;
+        this.region = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, maxRegionSize));
+    }
+
+    @Override
+    public int read() throws IOException {
+        if ( ! nextRegionIfNeeded()) return -1;
+        return region.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if ( ! nextRegionIfNeeded()) return -1;
+        int n = Math.min(len, region.remaining());
+        region.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long position = Math.min(size, regionStart + region.position() + Math.max(0, n));
+        long skipped = position - (regionStart + region.position());
+        if (position < regionStart + region.limit()) {
+            region.position((int) (position - regionStart));
+        } else {
+            mapRegionAt(position);
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, size - regionStart - region.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Maps the next region if the current one is exhausted, and returns whether there are more bytes to read */
+    private boolean nextRegionIfNeeded() throws IOException {
+        if (region.hasRemaining()) return true;
+        long position = regionStart + region.limit();
+        if (position >= size) return false;
+        mapRegionAt(position);
+        return true;
+    }
+
+    private void mapRegionAt(long position) throws IOException {
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, maxRegionSize));
+    }
+
+}
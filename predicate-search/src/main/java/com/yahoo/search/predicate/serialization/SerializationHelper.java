@@ -6,76 +6,105 @@ import com.yahoo.search.predicate.PredicateIndex;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Misc utility functions to help serialization of {@link PredicateIndex}.
+ * Arrays are written and read in bulk, using the same big-endian encoding as the per-element methods of
+ * {@link DataOutputStream} and {@link DataInputStream}.
  *
  * @author bjorncs
  */
 public class SerializationHelper {
 
+    private static final int MAX_CHUNK_SIZE = 1 << 16; // bytes
+
     public static void writeIntArray(int[] array, DataOutputStream out) throws IOException {
         out.writeInt(array.length);
-        for (int v : array) {
-            out.writeInt(v);
+        byte[] chunk = new byte[chunkSize(array.length, Integer.BYTES)];
+        for (int i = 0; i < array.length; ) {
+            int n = Math.min(array.length - i, chunk.length / Integer.BYTES);
+            ByteBuffer.wrap(chunk).asIntBuffer().put(array, i, n);
+            out.write(chunk, 0, n * Integer.BYTES);
+            i += n;
         }
     }
 
     public static int[] readIntArray(DataInputStream in) throws IOException {
         int length = in.readInt();
         int[] array = new int[length];
-        for (int i = 0; i < length; i++) {
-            array[i] = in.readInt();
+        byte[] chunk = new byte[chunkSize(length, Integer.BYTES)];
+        for (int i = 0; i < length; ) {
+            int n = Math.min(length - i, chunk.length / Integer.BYTES);
+            in.readFully(chunk, 0, n * Integer.BYTES);
+            ByteBuffer.wrap(chunk).asIntBuffer().get(array, i, n);
+            i += n;
         }
         return array;
     }
 
     public static void writeByteArray(byte[] array, DataOutputStream out) throws IOException {
         out.writeInt(array.length);
-        for (int v : array) {
-            out.writeByte(v);
-        }
+        out.write(array);
     }
 
     public static byte[] readByteArray(DataInputStream in) throws IOException {
         int length = in.readInt();
         byte[] array = new byte[length];
-        for (int i = 0; i < length; i++) {
-            array[i] = in.readByte();
-        }
+        in.readFully(array);
         return array;
     }
 
     public static void writeLongArray(long[] array, DataOutputStream out) throws IOException {
         out.writeInt(array.length);
-        for (long v : array) {
-            out.writeLong(v);
+        byte[] chunk = new byte[chunkSize(array.length, Long.BYTES)];
+        for (int i = 0; i < array.length; ) {
+            int n = Math.min(array.length - i, chunk.length / Long.BYTES);
+            ByteBuffer.wrap(chunk).asLongBuffer().put(array, i, n);
+            out.write(chunk, 0, n * Long.BYTES);
+            i += n;
         }
     }
 
     public static long[] readLongArray(DataInputStream in) throws IOException {
         int length = in.readInt();
         long[] array = new long[length];
-        for (int i = 0; i < length; i++) {
-            array[i] = in.readLong();
+        byte[] chunk = new byte[chunkSize(length, Long.BYTES)];
+        for (int i = 0; i < length; ) {
+            int n = Math.min(length - i, chunk.length / Long.BYTES);
+            in.readFully(chunk, 0, n * Long.BYTES);
+            ByteBuffer.wrap(chunk).asLongBuffer().get(array, i, n);
+            i += n;
         }
         return array;
     }
 
     public static void writeShortArray(short[] array, DataOutputStream out) throws IOException {
         out.writeInt(array.length);
-        for (short v : array) {
-            out.writeShort(v);
+        byte[] chunk = new byte[chunkSize(array.length, Short.BYTES)];
+        for (int i = 0; i < array.length; ) {
+            int n = Math.min(array.length - i, chunk.length / Short.BYTES);
+            ByteBuffer.wrap(chunk).asShortBuffer().put(array, i, n);
+            out.write(chunk, 0, n * Short.BYTES);
+            i += n;
         }
     }
 
     public static short[] readShortArray(DataInputStream in) throws IOException {
         int length = in.readInt();
         short[] array = new short[length];
-        for (int i = 0; i < length; i++) {
-            array[i] = in.readShort();
+        byte[] chunk = new byte[chunkSize(length, Short.BYTES)];
+        for (int i = 0; i < length; ) {
+            int n = Math.min(length - i, chunk.length / Short.BYTES);
+            in.readFully(chunk, 0, n * Short.BYTES);
+            ByteBuffer.wrap(chunk).asShortBuffer().get(array, i, n);
+            i += n;
         }
         return array;
     }
 
+    private static int chunkSize(int length, int elementSize) {
+        return (int) Math.min((long) length * elementSize, MAX_CHUNK_SIZE);
+    }
+
 }
@@ -2,9 +2,16 @@
 package com.yahoo.search.predicate;
 
 import com.yahoo.document.predicate.Predicate;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.yahoo.search.predicate.serialization.SerializationTestHelper.assertSerializationDeserializationMatches;
 import static java.util.stream.Collectors.toList;
@@ -18,6 +25,9 @@ public class PredicateIndexTest {
 
     private static final int DOC_ID = 42;
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     @Test
     public void requireThatPredicateIndexCanSearch() {
         PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
@@ -129,6 +139,49 @@ public class PredicateIndexTest {
         assertEquals("[42]", searcher.search(query).collect(toList()).toString());
     }
 
+    @Test
+    public void requireThatHitsCanBePassedToSink() {
+        PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
+        builder.indexDocument(DOC_ID, Predicate.fromString("country in [no] and gender in [male]"));
+        builder.indexDocument(DOC_ID + 1, Predicate.fromString("country in [no]"));
+        PredicateIndex index = builder.build();
+        PredicateQuery query = new PredicateQuery();
+        query.addFeature("country", "no", 0x3);
+        query.addFeature("gender", "male", 0x6);
+        List<Hit> hits = new ArrayList<>();
+        index.searcher().search(query, (docId, subquery) -> hits.add(new Hit(docId, subquery)));
+        assertEquals("[[42,0x2], [43,0x3]]", hits.toString());
+    }
+
+    @Test
+    public void requireThatPartitionedSearchReturnsSameHitsAsSearch() throws InterruptedException {
+        PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
+        for (int i = 0; i < 1000; i++) {
+            builder.indexDocument(i, Predicate.fromString(i % 3 == 0 ? "country in [no] and age in [20..40]"
+                                                          : i % 3 == 1 ? "country not in [se]"
+                                                          : "gender in [female]"));
+        }
+        PredicateIndex index = builder.build();
+        PredicateQuery query = new PredicateQuery();
+        query.addFeature("country", "no");
+        query.addRangeFeature("age", 30);
+        PredicateIndex.Searcher searcher = index.searcher();
+        List<Hit> expected = searcher.search(query).collect(toList());
+        assertEquals(667, expected.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int partitions : new int[] { 1, 2, 4, 7, 2000 }) {
+                List<Hit> hits = new ArrayList<>();
+                searcher.search(query, (docId, subquery) -> hits.add(new Hit(docId, subquery)), executor, partitions);
+                assertEquals(expected, hits);
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void require_that_serialization_and_deserialization_retain_data() throws IOException {
         PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
@@ -138,4 +191,23 @@ public class PredicateIndexTest {
         assertSerializationDeserializationMatches(
                 index, PredicateIndex::writeToOutputStream, PredicateIndex::fromInputStream);
     }
+
+    @Test
+    public void require_that_index_can_be_written_to_and_read_from_file() throws IOException {
+        PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
+        builder.indexDocument(1, Predicate.fromString("country in ['no', 'se'] and gender in ['male']"));
+        builder.indexDocument(0x3fffffe, Predicate.fromString("country in ['no'] and gender in ['female']"));
+        Path file = tmp.getRoot().toPath().resolve("index");
+        builder.build().writeToFile(file);
+        builder.indexDocument(2, Predicate.fromString("gender in ['female']"));
+        builder.build().writeToFile(file);
+
+        PredicateIndex index = PredicateIndex.fromFile(file);
+        PredicateQuery query = new PredicateQuery();
+        query.addFeature("country", "no");
+        query.addFeature("gender", "female");
+        assertEquals("[67108862, 2]", index.searcher().search(query).collect(toList()).toString());
+        assertEquals(1, tmp.getRoot().list().length);
+    }
+
 }
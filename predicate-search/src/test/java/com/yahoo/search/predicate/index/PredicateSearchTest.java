@@ -206,6 +206,35 @@ public class PredicateSearchTest {
         assertEquals(Arrays.asList(new Hit(0)).toString(), search.stream().collect(toList()).toString());
     }
 
+    @Test
+    public void requireThatSearchCanBeRestrictedToDocIdRange() {
+        PredicateSearch search = createPredicateSearch(
+                new byte[]{1, 1, 1, 1},
+                1, 3,
+                postingList(SubqueryBitmap.ALL_SUBQUERIES,
+                        entry(0, 0x000100ff),
+                        entry(1, 0x000100ff),
+                        entry(3, 0x000100ff)),
+                postingList(SubqueryBitmap.ALL_SUBQUERIES,
+                        entry(2, 0x000100ff)));
+        assertEquals(Arrays.asList(new Hit(1), new Hit(2)).toString(), search.stream().collect(toList()).toString());
+    }
+
+    @Test
+    public void requireThatHitsCanBePassedToSink() {
+        PredicateSearch search = createPredicateSearch(
+                new byte[]{2, 1, 1, 1},
+                postingList(0x3,
+                        entry(0, 0x000100ff),
+                        entry(3, 0x000100ff)),
+                postingList(0x6,
+                        entry(1, 0x000100ff),
+                        entry(2, 0x000100ff)));
+        List<Hit> hits = new ArrayList<>();
+        search.forEachHit((docId, subquery) -> hits.add(new Hit(docId, subquery)));
+        assertEquals(Arrays.asList(new Hit(1, 0x6), new Hit(2, 0x6), new Hit(3, 0x3)), hits);
+    }
+
     private static PredicateSearch createPredicateSearch(byte[] minFeatures, PostingList... postingLists) {
         byte[] nPostingListsForDocument = new byte[minFeatures.length];
         short[] intervalEnds = new short[minFeatures.length];
@@ -219,6 +248,20 @@ public class PredicateSearchTest {
         return new PredicateSearch(list, nPostingListsForDocument, minFeatures, intervalEnds, 0xFF);
     }
 
+    private static PredicateSearch createPredicateSearch(byte[] minFeatures, int beginDocId, int endDocId,
+                                                         PostingList... postingLists) {
+        byte[] nPostingListsForDocument = new byte[minFeatures.length];
+        short[] intervalEnds = new short[minFeatures.length];
+        Arrays.fill(intervalEnds, (short) 0xFF);
+        for (PostingList postingList : postingLists) {
+            for (int id : postingList.getDocIds()) {
+                nPostingListsForDocument[id]++;
+            }
+        }
+        return new PredicateSearch(Arrays.asList(postingLists), nPostingListsForDocument, minFeatures, intervalEnds, 0xFF,
+                                   beginDocId, endDocId);
+    }
+
     private static class SimplePostingList implements PostingList {
         private final long subquery;
         private final Entry[] entries;
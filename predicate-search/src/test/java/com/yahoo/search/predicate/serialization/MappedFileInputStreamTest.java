@@ -0,0 +1,52 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate.serialization;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MappedFileInputStreamTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void require_that_reads_span_regions() throws IOException {
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) content[i] = (byte) i;
+        Path file = tmp.newFile().toPath();
+        Files.write(file, content);
+
+        try (DataInputStream in = new DataInputStream(new MappedFileInputStream(file, 64))) {
+            byte[] read = new byte[content.length];
+            assertEquals(0, in.read());
+            assertEquals(1000 - 1, in.available());
+            in.readFully(read, 1, 100);
+            assertEquals(100, in.skip(100));
+            in.readFully(read, 201, content.length - 201);
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(read, 0, 1));
+
+            System.arraycopy(content, 101, read, 101, 100);
+            assertArrayEquals(content, read);
+        }
+    }
+
+    @Test
+    public void require_that_empty_file_can_be_read() throws IOException {
+        Path file = tmp.newFile().toPath();
+        try (InputStream in = new MappedFileInputStream(file)) {
+            assertEquals(-1, in.read());
+        }
+    }
+
+}
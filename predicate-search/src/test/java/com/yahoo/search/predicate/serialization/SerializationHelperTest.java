@@ -3,9 +3,13 @@ package com.yahoo.search.predicate.serialization;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Random;
 
 import static com.yahoo.search.predicate.serialization.SerializationTestHelper.*;
+import static org.junit.Assert.assertArrayEquals;
 
 /**
  * @author bjorncs
@@ -40,5 +44,28 @@ public class SerializationHelperTest {
                 shorts, SerializationHelper::writeShortArray, SerializationHelper::readShortArray);
     }
 
+    @Test
+    public void require_that_arrays_larger_than_a_chunk_are_serialized_per_element() throws IOException {
+        Random random = new Random(42);
+        int[] ints = random.ints(50_000).toArray();
+        long[] longs = random.longs(50_000).toArray();
+        short[] shorts = new short[50_000];
+        for (int i = 0; i < shorts.length; i++) shorts[i] = (short) random.nextInt();
+
+        assertSerializationDeserializationMatches(
+                ints, SerializationHelper::writeIntArray, SerializationHelper::readIntArray);
+        assertSerializationDeserializationMatches(
+                longs, SerializationHelper::writeLongArray, SerializationHelper::readLongArray);
+        assertSerializationDeserializationMatches(
+                shorts, SerializationHelper::writeShortArray, SerializationHelper::readShortArray);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(expected);
+        out.writeInt(ints.length);
+        for (int v : ints) out.writeInt(v);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        SerializationHelper.writeIntArray(ints, new DataOutputStream(actual));
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
 
 }
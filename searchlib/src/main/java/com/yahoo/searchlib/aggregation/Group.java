@@ -49,39 +49,36 @@ public class Group extends Identifiable {
             }
         }
 
-        ArrayList<Group> merged = new ArrayList<>();
-        Iterator<Group> lhsChild = children.iterator(), rhsChild = rhs.children.iterator();
-        if (lhsChild.hasNext() && rhsChild.hasNext()) {
-            Group lhsGroup = lhsChild.next();
-            Group rhsGroup = rhsChild.next();
-            for (; (lhsGroup != null) && (rhsGroup != null); ) {
-                int cmp = lhsGroup.getId().compareTo(rhsGroup.getId());
-                if (cmp < 0) {
-                    merged.add(lhsGroup);
-                    lhsGroup = lhsChild.hasNext() ? lhsChild.next() : null;
-                } else if (cmp > 0) {
-                    merged.add(rhsGroup);
-                    rhsGroup = rhsChild.hasNext() ? rhsChild.next() : null;
-                } else {
-                    lhsGroup.merge(firstLevel, currentLevel + 1, rhsGroup);
-                    merged.add(lhsGroup);
-                    lhsGroup = lhsChild.hasNext() ? lhsChild.next() : null;
-                    rhsGroup = rhsChild.hasNext() ? rhsChild.next() : null;
-                }
-            }
-            if (lhsGroup != null) {
+        if (rhs.children.isEmpty()) return;
+        if (children.isEmpty()) {
+            children = new ArrayList<>(rhs.children);
+            return;
+        }
+
+        // Both child lists are sorted by id: Merge them in a single pass
+        List<Group> lhsChildren = children, rhsChildren = rhs.children;
+        int lhsSize = lhsChildren.size(), rhsSize = rhsChildren.size();
+        ArrayList<Group> merged = new ArrayList<>(lhsSize + rhsSize);
+        int lhsIndex = 0, rhsIndex = 0;
+        while (lhsIndex < lhsSize && rhsIndex < rhsSize) {
+            Group lhsGroup = lhsChildren.get(lhsIndex);
+            Group rhsGroup = rhsChildren.get(rhsIndex);
+            int cmp = lhsGroup.getId().compareTo(rhsGroup.getId());
+            if (cmp < 0) {
                 merged.add(lhsGroup);
-            }
-            if (rhsGroup != null) {
+                lhsIndex++;
+            } else if (cmp > 0) {
                 merged.add(rhsGroup);
+                rhsIndex++;
+            } else {
+                lhsGroup.merge(firstLevel, currentLevel + 1, rhsGroup);
+                merged.add(lhsGroup);
+                lhsIndex++;
+                rhsIndex++;
             }
         }
-        while (lhsChild.hasNext()) {
-            merged.add(lhsChild.next());
-        }
-        while (rhsChild.hasNext()) {
-            merged.add(rhsChild.next());
-        }
+        merged.addAll(lhsChildren.subList(lhsIndex, lhsSize));
+        merged.addAll(rhsChildren.subList(rhsIndex, rhsSize));
         children = merged;
     }
 
@@ -13,6 +13,7 @@ import com.yahoo.searchlib.expression.MultiplyFunctionNode;
 import com.yahoo.searchlib.expression.StringResultNode;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -724,6 +725,79 @@ public class MergeTestCase {
         assertMerge(request, rhs, lhs, expect);
     }
 
+    // Verify that merging partial results as a balanced tree of pairwise merges gives the same result as folding them.
+    @Test
+    public void testPairwiseMergeEqualsSequentialFold() {
+        Grouping request = new Grouping()
+            .addLevel(new GroupingLevel()
+                      .setExpression(new AttributeNode("c1"))
+                      .setGroupPrototype(new Group().addAggregationResult(
+                              new SumAggregationResult().setExpression(new AttributeNode("s1")))))
+            .addLevel(new GroupingLevel()
+                      .setExpression(new AttributeNode("c2"))
+                      .setGroupPrototype(new Group().addAggregationResult(
+                              new SumAggregationResult().setExpression(new AttributeNode("s2")))));
+        assertPairwiseMergeEqualsSequentialFold(request, 3, 6);
+        assertPairwiseMergeEqualsSequentialFold(request, 5, 9);
+    }
+
+    private static void assertPairwiseMergeEqualsSequentialFold(Grouping request, int partialCount, int expectedGroupCount) {
+        List<Grouping> partials = new ArrayList<>();
+        for (int i = 0; i < partialCount; ++i) {
+            partials.add(request.clone().setRoot(createPartialResult(i)));
+        }
+
+        Grouping folded = partials.get(0).clone();
+        for (int i = 1; i < partialCount; ++i) {
+            folded.merge(partials.get(i).clone());
+        }
+        folded.postMerge();
+
+        List<Grouping> tree = new ArrayList<>();
+        for (Grouping partial : partials) {
+            tree.add(partial.clone());
+        }
+        for (int step = 1; step < partialCount; step *= 2) {
+            for (int i = 0; i + step < partialCount; i += 2 * step) {
+                tree.get(i).merge(tree.get(i + step));
+            }
+        }
+        Grouping merged = tree.get(0);
+        merged.postMerge();
+
+        assertEquals(folded.getRoot().toString(), merged.getRoot().toString());
+        assertEquals(folded.getRoot(), merged.getRoot());
+        assertEquals(expectedGroupCount, merged.getRoot().getChildren().size());
+    }
+
+    /**
+     * Returns the partial result of one content node. Group 0 is returned by all nodes, group 1 to 3 by pairs of nodes
+     * and group 10 and up by a single node each, such that children are both merged and interleaved.
+     */
+    private static Group createPartialResult(int node) {
+        Group root = new Group()
+            .addAggregationResult(new SumAggregationResult()
+                       .setSum(new IntegerResultNode(node + 1))
+                       .setExpression(new AttributeNode("s0")));
+        for (int id : new int[] { 0, node / 2 + 1, 10 + node }) {
+            Group child = new Group()
+                .setId(new IntegerResultNode(id))
+                .setRank(node * 10 + id)
+                .addAggregationResult(new SumAggregationResult()
+                           .setSum(new IntegerResultNode(id * 10 + node))
+                           .setExpression(new AttributeNode("s1")));
+            for (int grandChildId : new int[] { node % 2, 5 + node }) {
+                child.addChild(new Group()
+                           .setId(new IntegerResultNode(grandChildId))
+                           .addAggregationResult(new SumAggregationResult()
+                                      .setSum(new IntegerResultNode(grandChildId + node))
+                                      .setExpression(new AttributeNode("s2"))));
+            }
+            root.addChild(child);
+        }
+        return root;
+    }
+
     private static void assertMerge(Grouping request, Group lhs, Group rhs, Group expect) {
         assertMerge(Arrays.asList(request.clone().setRoot(lhs.clone()),
                                   request.clone().setRoot(rhs.clone())),
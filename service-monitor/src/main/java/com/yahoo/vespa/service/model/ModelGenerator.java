@@ -12,7 +12,6 @@ import com.yahoo.vespa.service.monitor.ServiceStatusProvider;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -44,12 +43,6 @@ public class ModelGenerator {
         return new ServiceModel(applicationInstances);
     }
 
-    public Set<ApplicationInstanceReference> toApplicationInstanceReferenceSet(List<ApplicationInfo> infos) {
-        return infos.stream()
-                .map(info -> new ApplicationInstanceGenerator(info, zone).toApplicationInstanceReference())
-                .collect(Collectors.toSet());
-    }
-
     public ApplicationInstance toApplicationInstance(ApplicationInfo applicationInfo,
                                                      ServiceStatusProvider serviceStatusProvider) {
         var generator = new ApplicationInstanceGenerator(applicationInfo, zone);
@@ -15,13 +15,17 @@ import com.yahoo.vespa.service.manager.MonitorManager;
 import com.yahoo.vespa.service.manager.UnionMonitorManager;
 import com.yahoo.vespa.service.monitor.AntiServiceMonitor;
 import com.yahoo.vespa.service.monitor.CriticalRegion;
+import com.yahoo.vespa.service.monitor.DuperModelListener;
 import com.yahoo.vespa.service.monitor.ServiceHostListener;
 import com.yahoo.vespa.service.monitor.ServiceModel;
 import com.yahoo.vespa.service.monitor.ServiceMonitor;
 import com.yahoo.vespa.service.monitor.ServiceStatusProvider;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class ServiceMonitorImpl implements ServiceMonitor, AntiServiceMonitor {
 
@@ -29,6 +33,7 @@ public class ServiceMonitorImpl implements ServiceMonitor, AntiServiceMonitor {
     private final DuperModelManager duperModelManager;
     private final ModelGenerator modelGenerator;
     private final ServiceStatusProvider serviceStatusProvider;
+    private final ApplicationReferences applicationReferences = new ApplicationReferences();
 
     @Inject
     public ServiceMonitorImpl(DuperModelManager duperModelManager,
@@ -53,7 +58,9 @@ public class ServiceMonitorImpl implements ServiceMonitor, AntiServiceMonitor {
         this.modelGenerator = modelGenerator;
 
         duperModelManager.registerListener(monitorManager);
+        duperModelManager.registerListener(applicationReferences);
     }
+
     @Override
     public ServiceModel getServiceModelSnapshot() {
         try (LatencyMeasurement measurement = metrics.startServiceModelSnapshotLatencyMeasurement()) {
@@ -63,7 +70,12 @@ public class ServiceMonitorImpl implements ServiceMonitor, AntiServiceMonitor {
 
     @Override
     public Set<ApplicationInstanceReference> getAllApplicationInstanceReferences() {
-        return modelGenerator.toApplicationInstanceReferenceSet(duperModelManager.getApplicationInfos());
+        return applicationReferences.all;
+    }
+
+    @Override
+    public Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId) {
+        return applicationReferences.byId.getOrDefault(applicationId, Set.of());
     }
 
     @Override
@@ -120,4 +132,46 @@ public class ServiceMonitorImpl implements ServiceMonitor, AntiServiceMonitor {
     private static com.yahoo.config.provision.HostName toConfigProvisionHostName(HostName hostname) {
         return com.yahoo.config.provision.HostName.from(hostname.s());
     }
+
+    /**
+     * The application instance references of all applications in the duper model, maintained from
+     * duper model events. Readers get immutable snapshots, which are replaced on each change.
+     */
+    private class ApplicationReferences implements DuperModelListener {
+
+        private final Map<ApplicationId, ApplicationInstanceReference> references = new HashMap<>();
+
+        /** The references by the application id they map to, which is normally the id they were created from */
+        private volatile Map<ApplicationId, Set<ApplicationInstanceReference>> byId = Map.of();
+        private volatile Set<ApplicationInstanceReference> all = Set.of();
+
+        @Override
+        public synchronized void applicationActivated(ApplicationInfo application) {
+            ApplicationId id = application.getApplicationId();
+            ApplicationInstanceReference reference = modelGenerator.toApplicationInstanceReference(id);
+            if (reference == null || reference.equals(references.get(id))) return;
+
+            references.put(id, reference);
+            update();
+        }
+
+        @Override
+        public synchronized void applicationRemoved(ApplicationId id) {
+            if (references.remove(id) == null) return;
+
+            update();
+        }
+
+        @Override
+        public void bootstrapComplete() { }
+
+        private void update() {
+            byId = references.values().stream()
+                             .collect(Collectors.groupingBy(ApplicationInstanceGenerator::toApplicationId,
+                                                            Collectors.toUnmodifiableSet()));
+            all = Set.copyOf(references.values());
+        }
+
+    }
+
 }
@@ -1,6 +1,7 @@
 // Copyright 2017 Yahoo Holdings. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.service.monitor;
 
+import com.yahoo.config.provision.ApplicationId;
 import com.yahoo.vespa.applicationmodel.ApplicationInstance;
 import com.yahoo.vespa.applicationmodel.ApplicationInstanceReference;
 import com.yahoo.vespa.applicationmodel.HostName;
@@ -28,6 +29,12 @@ public interface ServiceMonitor {
         return getServiceModelSnapshot().getAllApplicationInstances().keySet();
     }
 
+    /**
+     * Returns the references of the application instances which map to the given application id.
+     * This is empty if the application is not known, and should never contain more than one reference.
+     */
+    Set<ApplicationInstanceReference> getApplicationInstanceReferences(ApplicationId applicationId);
+
     default Optional<ApplicationInstanceReference> getApplicationInstanceReference(HostName hostname) {
         return getApplication(hostname).map(ApplicationInstance::reference);
     }
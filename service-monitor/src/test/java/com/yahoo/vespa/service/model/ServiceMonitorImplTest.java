@@ -2,15 +2,23 @@
 package com.yahoo.vespa.service.model;
 
 import com.yahoo.config.model.api.ApplicationInfo;
+import com.yahoo.config.provision.ApplicationId;
+import com.yahoo.config.provision.Zone;
+import com.yahoo.vespa.applicationmodel.ApplicationInstanceReference;
 import com.yahoo.vespa.service.duper.DuperModelManager;
+import com.yahoo.vespa.service.monitor.DuperModelListener;
 import com.yahoo.vespa.service.monitor.ServiceModel;
 import com.yahoo.vespa.service.slobrok.SlobrokMonitorManagerImpl;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -38,4 +46,40 @@ public class ServiceMonitorImplTest {
         verify(duperModelManager, times(1)).getApplicationInfos();
         verify(modelGenerator).toServiceModel(applications, slobrokMonitorManager);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void application_instance_references_follow_duper_model() {
+        DuperModelManager duperModelManager = mock(DuperModelManager.class);
+        ModelGenerator modelGenerator = new ModelGenerator(Zone.defaultZone());
+        ServiceMonitorImpl serviceMonitor = new ServiceMonitorImpl(
+                mock(SlobrokMonitorManagerImpl.class),
+                mock(ServiceMonitorMetrics.class),
+                duperModelManager,
+                modelGenerator);
+        ArgumentCaptor<DuperModelListener> listeners = ArgumentCaptor.forClass(DuperModelListener.class);
+        verify(duperModelManager, atLeastOnce()).registerListener(listeners.capture());
+        DuperModelListener listener = listeners.getAllValues().get(listeners.getAllValues().size() - 1);
+
+        ApplicationId id1 = ApplicationId.from("tenant", "app1", "default");
+        ApplicationId id2 = ApplicationId.from("tenant", "app2", "default");
+        ApplicationInstanceReference reference1 = modelGenerator.toApplicationInstanceReference(id1);
+        ApplicationInstanceReference reference2 = modelGenerator.toApplicationInstanceReference(id2);
+        listener.applicationActivated(applicationInfo(id1));
+        listener.applicationActivated(applicationInfo(id2));
+        listener.applicationActivated(applicationInfo(id1));
+        assertEquals(Set.of(reference1, reference2), serviceMonitor.getAllApplicationInstanceReferences());
+        assertEquals(Set.of(reference1), serviceMonitor.getApplicationInstanceReferences(id1));
+
+        listener.applicationRemoved(id1);
+        assertEquals(Set.of(reference2), serviceMonitor.getAllApplicationInstanceReferences());
+        assertEquals(Set.of(), serviceMonitor.getApplicationInstanceReferences(id1));
+        assertEquals(Set.of(reference2), serviceMonitor.getApplicationInstanceReferences(id2));
+    }
+
+    private static ApplicationInfo applicationInfo(ApplicationId id) {
+        ApplicationInfo application = mock(ApplicationInfo.class);
+        when(application.getApplicationId()).thenReturn(id);
+        return application;
+    }
+
+}
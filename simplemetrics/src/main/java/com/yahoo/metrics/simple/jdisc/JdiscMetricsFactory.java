@@ -22,6 +22,9 @@ public class JdiscMetricsFactory implements MetricConsumerFactory, SnapshotProvi
     private final SimpleMetricConsumer metricInstance;
     private final MetricReceiver metricReceiver;
 
+    /** The last snapshot converted, and the bucket it was converted from */
+    private volatile ConvertedSnapshot lastSnapshot = new ConvertedSnapshot(null, null);
+
     public JdiscMetricsFactory(MetricReceiver receiver) {
         this.metricReceiver = receiver;
         this.metricInstance = new SimpleMetricConsumer(receiver);
@@ -40,10 +43,14 @@ public class JdiscMetricsFactory implements MetricConsumerFactory, SnapshotProvi
         if (curr == null) {
             log.warning("no snapshot from instance of " + metricReceiver.getClass());
             return null;
-        } else {
-            SnapshotConverter converter = new SnapshotConverter(curr);
-            return converter.convert();
         }
+        // The aggregator publishes a new bucket once a second, so a conversion is reused by all requests until then
+        ConvertedSnapshot last = lastSnapshot;
+        if (last.bucket == curr) return last.snapshot;
+
+        MetricSnapshot snapshot = new SnapshotConverter(curr).convert();
+        lastSnapshot = new ConvertedSnapshot(curr, snapshot);
+        return snapshot;
     }
 
     @Override
@@ -57,4 +64,16 @@ public class JdiscMetricsFactory implements MetricConsumerFactory, SnapshotProvi
         }
     }
 
+    private static class ConvertedSnapshot {
+
+        final Bucket bucket;
+        final MetricSnapshot snapshot;
+
+        ConvertedSnapshot(Bucket bucket, MetricSnapshot snapshot) {
+            this.bucket = bucket;
+            this.snapshot = snapshot;
+        }
+
+    }
+
 }
@@ -3,6 +3,7 @@ package com.yahoo.metrics.simple.jdisc;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.yahoo.jdisc.Metric.Context;
 import com.yahoo.jdisc.application.MetricConsumer;
@@ -20,8 +21,13 @@ import com.yahoo.metrics.simple.UntypedMetric.AssumedType;
  */
 public class SimpleMetricConsumer implements MetricConsumer {
 
+    private static final int maxCachedContexts = 10000;
+
     private final MetricReceiver receiver;
 
+    /** Contexts for recurring sets of dimensions, which are typically created for every request */
+    private final Map<Map<String, ?>, Point> contexts = new ConcurrentHashMap<>();
+
     public SimpleMetricConsumer(MetricReceiver receiver) {
         this.receiver = receiver;
     }
@@ -48,7 +54,13 @@ public class SimpleMetricConsumer implements MetricConsumer {
     public Context createContext(Map<String, ?> properties) {
         if (properties == null)
             properties = new HashMap<>();
-        return new Point(properties);
+        Point point = contexts.get(properties);
+        if (point == null) {
+            point = new Point(properties);
+            if (contexts.size() < maxCachedContexts)
+                contexts.putIfAbsent(new HashMap<>(properties), point);
+        }
+        return point;
     }
 
 }
@@ -0,0 +1,43 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.metrics.simple.jdisc;
+
+import com.yahoo.concurrent.ThreadLocalDirectory;
+import com.yahoo.jdisc.application.MetricConsumer;
+import com.yahoo.metrics.simple.Bucket;
+import com.yahoo.metrics.simple.MetricReceiver;
+import com.yahoo.metrics.simple.Sample;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author bratseth
+ */
+public class JdiscMetricsFactoryTest {
+
+    @Test
+    public void testContextsAreReusedForEqualDimensions() {
+        MetricConsumer consumer = new JdiscMetricsFactory(new MetricReceiver.MockReceiver()).newInstance();
+        assertSame(consumer.createContext(Map.of("a", "1", "b", 2)), consumer.createContext(Map.of("b", 2, "a", "1")));
+        assertNotSame(consumer.createContext(Map.of("a", "1")), consumer.createContext(Map.of("a", "2")));
+        assertEquals(consumer.createContext(Map.of("a", 2)), consumer.createContext(Map.of("a", "2")));
+    }
+
+    @Test
+    public void testSnapshotIsConvertedOncePerBucket() {
+        AtomicReference<Bucket> currentBucket = new AtomicReference<>(new Bucket());
+        JdiscMetricsFactory factory = new JdiscMetricsFactory(
+                new MetricReceiver(new ThreadLocalDirectory<Bucket, Sample>(null), currentBucket));
+        assertSame(factory.latestSnapshot(), factory.latestSnapshot());
+
+        var previous = factory.latestSnapshot();
+        currentBucket.set(new Bucket());
+        assertNotSame(previous, factory.latestSnapshot());
+    }
+
+}
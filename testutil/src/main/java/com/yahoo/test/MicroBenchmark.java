@@ -0,0 +1,85 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.LongSupplier;
+
+/**
+ * A minimal harness for microbenchmarks. Each case is run repeatedly for a warmup period and then for a
+ * measurement period, and is reported as one comma separated line of name, iterations, nanoseconds per
+ * operation and bytes allocated per operation, such that runs from different builds can be compared directly.
+ *
+ * @author bratseth
+ */
+public class MicroBenchmark {
+
+    /** The number of times the operation is run between each time check */
+    private static final int unrolling = 10;
+
+    /** Written to by all benchmarked operations to prevent them from being optimized away */
+    private static volatile long sink;
+
+    private final long warmupNanos;
+    private final long runNanos;
+
+    public MicroBenchmark(long warmupMillis, long runMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000;
+        this.runNanos = runMillis * 1_000_000;
+    }
+
+    /** Creates a benchmark measuring each case for the number of milliseconds given as the first argument, if any */
+    public static MicroBenchmark fromArguments(String[] args) {
+        long runMillis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        return new MicroBenchmark(runMillis / 4, runMillis);
+    }
+
+    /**
+     * Prints the header line of the output.
+     *
+     * @param nameColumns the comma separated names of the columns making up the name of each case
+     */
+    public void printHeader(String nameColumns) {
+        System.out.println("# " + nameColumns + ", iterations, nanoseconds per operation, bytes allocated per operation");
+    }
+
+    /**
+     * Benchmarks the given operation and prints the result.
+     *
+     * @param name the name of this case in the output, which may be multiple comma separated columns
+     * @param operation the operation to benchmark, which should return some value depending on the work done
+     */
+    public void run(String name, LongSupplier operation) {
+        iterate(operation, warmupNanos);
+        System.gc();
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+        long iterations = iterate(operation, runNanos);
+        long totalTime = System.nanoTime() - startTime;
+        long totalBytes = allocatedBytes() - startBytes;
+        System.out.printf("%s, %d, %.1f, %d\n", name, iterations, (double)totalTime / iterations,
+                          startBytes < 0 ? -1 : totalBytes / iterations);
+    }
+
+    /** Runs the given operation repeatedly for at least the given time, and returns the number of times it was run */
+    private static long iterate(LongSupplier operation, long nanos) {
+        long iterations = 0;
+        long sum = 0;
+        long endTime = System.nanoTime() + nanos;
+        do {
+            for (int i = 0; i < unrolling; i++)
+                sum += operation.getAsLong();
+            iterations += unrolling;
+        } while (System.nanoTime() < endTime);
+        sink += sum;
+        return iterations;
+    }
+
+    /** Returns the number of bytes allocated by this thread so far, or -1 if this is not supported by the JVM */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if ( ! (threads instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
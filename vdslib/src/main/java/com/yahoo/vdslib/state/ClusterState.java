@@ -4,11 +4,10 @@ import com.yahoo.text.StringUtilities;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
-import java.util.TreeSet;
 
 /**
  * Be careful about changing this class, as it mirrors the ClusterState in C++.
@@ -121,22 +120,23 @@ public class ClusterState implements Cloneable {
             return false;
         }
         // TODO verify behavior of C++ impl against this
-        for (Node node : unionNodeSetWith(other.nodeStates.keySet())) {
-            final NodeState lhs = nodeStates.get(node);
-            final NodeState rhs = other.nodeStates.get(node);
-            if (!nodeStateCmp.similar(node.getType(), lhs, rhs)) {
+        // Both node state maps are sorted by node, so the union of their nodes is visited in a single merge pass
+        Iterator<Map.Entry<Node, NodeState>> lhsIterator = nodeStates.entrySet().iterator();
+        Iterator<Map.Entry<Node, NodeState>> rhsIterator = other.nodeStates.entrySet().iterator();
+        Map.Entry<Node, NodeState> lhs = lhsIterator.hasNext() ? lhsIterator.next() : null;
+        Map.Entry<Node, NodeState> rhs = rhsIterator.hasNext() ? rhsIterator.next() : null;
+        while (lhs != null || rhs != null) {
+            int order = lhs == null ? 1 : rhs == null ? -1 : lhs.getKey().compareTo(rhs.getKey());
+            Node node = order <= 0 ? lhs.getKey() : rhs.getKey();
+            if (!nodeStateCmp.similar(node.getType(), order <= 0 ? lhs.getValue() : null, order >= 0 ? rhs.getValue() : null)) {
                 return false;
             }
+            if (order <= 0) lhs = lhsIterator.hasNext() ? lhsIterator.next() : null;
+            if (order >= 0) rhs = rhsIterator.hasNext() ? rhsIterator.next() : null;
         }
         return true;
     }
 
-    private Set<Node> unionNodeSetWith(final Set<Node> otherNodes) {
-        final Set<Node> unionNodeSet = new TreeSet<>(nodeStates.keySet());
-        unionNodeSet.addAll(otherNodes);
-        return unionNodeSet;
-    }
-
     private boolean metaInformationSimilarTo(final ClusterState other) {
         if (version != other.version || !state.equals(other.state)) {
             return false;
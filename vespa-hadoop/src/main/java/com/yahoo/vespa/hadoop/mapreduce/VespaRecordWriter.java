@@ -37,6 +37,8 @@ import java.util.logging.Logger;
 
 /**
  * VespaRecordWriter sends the output &lt;key, value&gt; to one or more Vespa endpoints.
+ * Operations are sent as JSON or XML over HTTP, since the mappers usually run outside the
+ * Vespa network and cannot reach the message bus, which carries documents in binary form.
  *
  * @author lesters
  */
@@ -44,6 +46,7 @@ import java.util.logging.Logger;
 public class VespaRecordWriter extends RecordWriter {
 
     private final static Logger log = Logger.getLogger(VespaRecordWriter.class.getCanonicalName());
+    private final static JsonFactory jsonFactory = new JsonFactory();
 
     private boolean initialized = false;
     private FeedClient feedClient;
@@ -182,8 +185,7 @@ public class VespaRecordWriter extends RecordWriter {
     }
     
     private String findDocId(String json) throws IOException {
-        JsonFactory factory = new JsonFactory();
-        try(JsonParser parser = factory.createParser(json)) {
+        try(JsonParser parser = jsonFactory.createParser(json)) {
             if (parser.nextToken() != JsonToken.START_OBJECT) {
                 return null;
             }
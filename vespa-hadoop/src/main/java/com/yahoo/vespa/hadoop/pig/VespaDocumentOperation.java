@@ -1,7 +1,6 @@
 // Copyright 2017 Yahoo Holdings. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.hadoop.pig;
 
-import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.yahoo.vespa.hadoop.mapreduce.util.TupleTools;
@@ -16,7 +15,6 @@ import org.apache.pig.tools.pigstats.PigStatusReporter;
 import org.apache.pig.impl.logicalLayer.schema.Schema;
 import org.joda.time.DateTime;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -82,6 +80,9 @@ public class VespaDocumentOperation extends EvalFunc<String> {
     private static final String PARTIAL_UPDATE_ADD = "add";
     private static final String PARTIAL_UPDATE_REMOVE = "remove";
 
+    /** Thread safe and expensive to create, so shared by all operations */
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
     private static Map<String, String> mapPartialOperationMap;
 
     static {
@@ -200,9 +201,9 @@ public class VespaDocumentOperation extends EvalFunc<String> {
             return null;
         }
 
-        // create json format
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        JsonGenerator g = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        // create json format, directly as characters as a string is returned
+        StringWriter out = new StringWriter();
+        JsonGenerator g = jsonFactory.createGenerator(out);
         g.writeStartObject();
 
         g.writeStringField(op.toString(), docId);
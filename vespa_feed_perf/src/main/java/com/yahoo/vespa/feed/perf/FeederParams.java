@@ -35,6 +35,7 @@ class FeederParams {
     private int numDispatchThreads = 1;
     private int maxPending = 0;
     private double timeout = 180.0;
+    private double rate = 0;
 
     private double windowSizeBackOff = 0.95;
     private double windowDecrementFactor = 1.2;
@@ -109,6 +110,13 @@ class FeederParams {
         return windowIncrementSize;
     }
 
+    /** Returns the target number of operations per second, or 0 to send as fast as the throttle policy allows */
+    double getRate() { return rate; }
+    FeederParams setRate(double rate) {
+        this.rate = rate;
+        return this;
+    }
+
     int getNumConnectionsPerTarget() { return numConnectionsPerTarget; }
 
     long getNumMessagesToSend() { return numMessagesToSend; }
@@ -143,6 +151,7 @@ class FeederParams {
         opts.addOption("c", "numconnections", true, "Number of connections per host.");
         opts.addOption("t", "timeout", true, "Timeout for a message in seconds. default = " + timeout);
         opts.addOption("l", "nummessages", true, "Number of messages to send (all is default).");
+        opts.addOption("a", "rate", true, "Target number of operations per second. Latency is measured from when each operation was due. Default is to send as fast as possible.");
         opts.addOption("wi", "window_incrementsize", true, "Dynamic window increment step size. default = " + windowIncrementSize);
         opts.addOption("wd", "window_decrementfactor", true, "Dynamic window decrement step size factor. default = " + windowDecrementFactor);
         opts.addOption("wb", "window_backoffactor", true, "Dynamic window backoff factor. default = " + windowSizeBackOff);
@@ -191,6 +200,9 @@ class FeederParams {
         if (cmd.hasOption('l')) {
             numMessagesToSend = Long.valueOf(cmd.getOptionValue('l').trim());
         }
+        if (cmd.hasOption('a')) {
+            rate = Double.valueOf(cmd.getOptionValue('a').trim());
+        }
 
         if ( !cmd.getArgList().isEmpty()) {
             inputStreams.clear();
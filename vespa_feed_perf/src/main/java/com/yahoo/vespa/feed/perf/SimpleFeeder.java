@@ -38,6 +38,7 @@ import com.yahoo.vespaxmlparser.FeedOperation;
 import com.yahoo.vespaxmlparser.RemoveFeedOperation;
 import com.yahoo.vespaxmlparser.VespaXMLFeedReader;
 import net.jpountz.xxhash.XXHashFactory;
+import org.HdrHistogram.Histogram;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -46,6 +47,8 @@ import java.io.PrintStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -54,6 +57,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author Simon Thoresen Hult
@@ -70,6 +74,7 @@ public class SimpleFeeder implements ReplyHandler {
     private final long numMessagesToSend;
     private final Destination destination;
     private final boolean benchmarkMode;
+    private final double rate;
     private final static long REPORT_INTERVAL = TimeUnit.SECONDS.toMillis(10);
     private final long startTime = System.currentTimeMillis();
     private final AtomicReference<Throwable> failure = new AtomicReference<>(null);
@@ -78,6 +83,7 @@ public class SimpleFeeder implements ReplyHandler {
     private long minLatency = Long.MAX_VALUE;
     private long nextReport = startTime + REPORT_INTERVAL;
     private long sumLatency = 0;
+    private final Map<String, Histogram> latencies = new TreeMap<>();
 
     static class Metrics {
 
@@ -86,33 +92,52 @@ public class SimpleFeeder implements ReplyHandler {
         private final Executor executor;
         private final long messagesToSend;
         private final AtomicReference<Throwable> failure;
+        private final double rate;
 
-        Metrics(Destination destination, FeedReader reader, Executor executor, AtomicReference<Throwable> failure, long messagesToSend) {
+        Metrics(Destination destination, FeedReader reader, Executor executor, AtomicReference<Throwable> failure,
+                long messagesToSend, double rate) {
             this.destination = destination;
             this.reader = reader;
             this.executor = executor;
             this.messagesToSend = messagesToSend;
             this.failure = failure;
+            this.rate = rate;
         }
 
         long feed() throws Throwable {
             long numMessages = 0;
+            long startNanos = System.nanoTime();
             while ((failure.get() == null) && (numMessages < messagesToSend)) {
                 FeedOperation op = reader.read();
                 if (op.getType() == FeedOperation.Type.INVALID) {
                     break;
                 }
+                long sendNanos = (rate > 0) ? awaitSendTime(startNanos, numMessages) : System.nanoTime();
                 if (executor != null) {
-                    executor.execute(() -> sendOperation(op));
+                    executor.execute(() -> sendOperation(op, sendNanos));
                 } else {
-                    sendOperation(op);
+                    sendOperation(op, sendNanos);
                 }
                 ++numMessages;
             }
             return numMessages;
         }
-        private void sendOperation(FeedOperation op) {
-            destination.send(op);
+
+        /**
+         * Waits until the given operation is due according to the target rate, and returns the time it was due.
+         * Latency is measured from this time rather than from when the operation was actually sent, so that
+         * time spent waiting for a slow system to accept more operations is accounted for.
+         */
+        private long awaitSendTime(long startNanos, long operationIndex) {
+            long dueNanos = startNanos + (long) (operationIndex * 1e9 / rate);
+            for (long now = System.nanoTime(); now < dueNanos; now = System.nanoTime()) {
+                LockSupport.parkNanos(dueNanos - now);
+            }
+            return dueNanos;
+        }
+
+        private void sendOperation(FeedOperation op, long sendNanos) {
+            destination.send(op, sendNanos);
         }
     }
 
@@ -122,7 +147,7 @@ public class SimpleFeeder implements ReplyHandler {
     }
 
     private interface Destination {
-        void send(FeedOperation op);
+        void send(FeedOperation op, long sendNanos);
         void close() throws Exception;
     }
 
@@ -139,14 +164,14 @@ public class SimpleFeeder implements ReplyHandler {
             this.timeoutMS = (long)(timeoutS * 1000.0);
             this.failure = failure;
         }
-        public void send(FeedOperation op) {
+        public void send(FeedOperation op, long sendNanos) {
             Message msg = newMessage(op);
             if (msg == null) {
                 err.println("ignoring operation; " + op.getType());
                 return;
             }
             msg.setTimeRemaining(timeoutMS);
-            msg.setContext(System.currentTimeMillis());
+            msg.setContext(sendNanos);
             msg.setRoute(route);
             try {
                 Error err = session.sendBlocking(msg).getError();
@@ -178,7 +203,7 @@ public class SimpleFeeder implements ReplyHandler {
                 failure.set(e);
             }
         }
-        public void send(FeedOperation op) {
+        public void send(FeedOperation op, long sendNanos) {
             if (op.getType() == FeedOperation.Type.DOCUMENT) {
                 if (!isFirst) {
                     try {
@@ -222,7 +247,7 @@ public class SimpleFeeder implements ReplyHandler {
                 failure.set(e);
             }
         }
-        public void send(FeedOperation op) {
+        public void send(FeedOperation op, long sendNanos) {
             TestAndSetCondition cond = op.getCondition();
             buffer.putUtf8String(cond.getSelection());
             DocumentSerializer writer = DocumentSerializerFactory.createHead(buffer);
@@ -354,6 +379,7 @@ public class SimpleFeeder implements ReplyHandler {
         session = newSession(mbus, this, params);
         docTypeMgr.configure(params.getConfigId());
         benchmarkMode = params.isBenchmarkMode();
+        rate = params.getRate();
         destination = (params.getDumpStream() != null)
                 ? createDumper(params)
                 : new MbusDestination(session, params.getRoute(), params.getTimeout(), failure, params.getStdErr());
@@ -398,7 +424,7 @@ public class SimpleFeeder implements ReplyHandler {
         printHeader(out);
         long numMessagesSent = 0;
         for (InputStream in : inputStreams) {
-            Metrics m = new Metrics(destination, createFeedReader(in), executor, failure, numMessagesToSend);
+            Metrics m = new Metrics(destination, createFeedReader(in), executor, failure, numMessagesToSend, rate);
             numMessagesSent += m.feed();
         }
         while (failure.get() == null && numReplies.get() < numMessagesSent) {
@@ -408,6 +434,9 @@ public class SimpleFeeder implements ReplyHandler {
             throw failure.get();
         }
         printReport(out);
+        if (benchmarkMode || rate > 0) {
+            printLatencies(out);
+        }
         return this;
     }
 
@@ -447,12 +476,13 @@ public class SimpleFeeder implements ReplyHandler {
             failure.compareAndSet(null, new IOException(formatErrors(reply)));
             return;
         }
-        long now = System.currentTimeMillis();
-        long latency = now - (long) reply.getContext();
+        long latencyNanos = System.nanoTime() - (long) reply.getContext();
         numReplies.incrementAndGet();
-        accumulateReplies(now, latency);
+        accumulateReplies(System.currentTimeMillis(), latencyNanos, operationName(reply));
     }
-    private synchronized void accumulateReplies(long now, long latency) {
+    private synchronized void accumulateReplies(long now, long latencyNanos, String operation) {
+        latencies.computeIfAbsent(operation, __ -> new Histogram(3)).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        long latency = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
         minLatency = Math.min(minLatency, latency);
         maxLatency = Math.max(maxLatency, latency);
         sumLatency += latency;
@@ -471,6 +501,25 @@ public class SimpleFeeder implements ReplyHandler {
                 numReplies.get(), minLatency, maxLatency, sumLatency / Long.max(1, numReplies.get()));
     }
 
+    /** Prints latency percentiles in milliseconds as comma separated values, one line per operation type */
+    private synchronized void printLatencies(PrintStream out) {
+        out.println("# Operation, count, p50 latency, p90 latency, p99 latency, p99.9 latency, max latency");
+        latencies.forEach((operation, histogram) ->
+                out.format("%s, %d, %.3f, %.3f, %.3f, %.3f, %.3f\n", operation, histogram.getTotalCount(),
+                           histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                           histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                           histogram.getMaxValue() / 1000.0));
+    }
+
+    private static String operationName(Reply reply) {
+        switch (reply.getType()) {
+        case DocumentProtocol.REPLY_PUTDOCUMENT: return "put";
+        case DocumentProtocol.REPLY_UPDATEDOCUMENT: return "update";
+        case DocumentProtocol.REPLY_REMOVEDOCUMENT: return "remove";
+        default: return "other";
+        }
+    }
+
     private static String formatErrors(Reply reply) {
         StringBuilder out = new StringBuilder();
         out.append(reply.getMessage().toString()).append('\n');
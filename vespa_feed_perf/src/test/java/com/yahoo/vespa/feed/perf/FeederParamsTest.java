@@ -109,6 +109,13 @@ public class FeederParamsTest {
         assertEquals(19, new FeederParams().parseArgs("--nummessages", "19").getNumMessagesToSend());
     }
 
+    @Test
+    public void requireThatRateIsParsed() throws ParseException, FileNotFoundException {
+        assertEquals(0.0, new FeederParams().getRate(), EPSILON);
+        assertEquals(100.5, new FeederParams().parseArgs("-a 100.5").getRate(), EPSILON);
+        assertEquals(2000.0, new FeederParams().parseArgs("--rate", "2000").getRate(), EPSILON);
+    }
+
     @Test
     public void requireThatWindowSizeIncrementIsParsed() throws ParseException, FileNotFoundException {
         assertEquals(20, new FeederParams().getWindowIncrementSize());
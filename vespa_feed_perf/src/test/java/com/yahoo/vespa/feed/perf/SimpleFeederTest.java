@@ -61,6 +61,37 @@ public class SimpleFeederTest {
                    "\\s*\\d+,\\s*3,.+\n");
     }
 
+    @Test
+    public void requireThatLatenciesArePrintedPerOperationWhenFeedingAtTargetRate() throws Throwable {
+        assertFeed(new FeederParams().setRate(1000),
+                   "<vespafeed>" +
+                   "    <document documenttype='simple' documentid='id:scheme:simple::0'>" +
+                   "        <my_str>foo</my_str>" +
+                   "    </document>" +
+                   "    <update documenttype='simple' documentid='id:scheme:simple::1'>" +
+                   "        <assign field='my_str'>bar</assign>" +
+                   "    </update>" +
+                   "    <remove documenttype='simple' documentid='id:scheme:simple::2'/>" +
+                   "    <remove documenttype='simple' documentid='id:scheme:simple::3'/>" +
+                   "</vespafeed>",
+                   new MessageHandler() {
+
+                       @Override
+                       public void handleMessage(Message msg) {
+                           Reply reply = ((DocumentMessage)msg).createReply();
+                           reply.swapState(msg);
+                           reply.popHandler().handleReply(reply);
+                       }
+                   },
+                   "",
+                   "(.+\n)+" +
+                   "\\s*\\d+,\\s*4,.+\n" +
+                   "# Operation, count, p50 latency, p90 latency, p99 latency, p99.9 latency, max latency\n" +
+                   "put, 1(, \\d+\\.\\d{3}){5}\n" +
+                   "remove, 2(, \\d+\\.\\d{3}){5}\n" +
+                   "update, 1(, \\d+\\.\\d{3}){5}\n");
+    }
+
     @Test
     public void requireThatXML2JsonFeederWorks() throws Throwable {
         ByteArrayOutputStream dump = new ByteArrayOutputStream();
@@ -0,0 +1,91 @@
+// Copyright Verizon Media. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor;
+
+import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.tensor.functions.Reduce;
+import com.yahoo.tensor.serialization.TypedBinaryFormat;
+import com.yahoo.test.MicroBenchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Microbenchmark of the tensor operations and binary serialization over dense, sparse and mixed tensors of
+ * increasing size. Results are printed as comma separated values, one line per operation, tensor type and size,
+ * such that runs from different builds can be compared directly.
+ *
+ * @author bratseth
+ */
+public class TensorOperationsBenchmark {
+
+    private static final Random random = new Random(1234);
+    private static final int innerSize = 16;
+
+    private final MicroBenchmark benchmark;
+
+    public TensorOperationsBenchmark(MicroBenchmark benchmark) {
+        this.benchmark = benchmark;
+    }
+
+    public void run() {
+        benchmark.printHeader("Operation, tensor kind, cells");
+        for (int size : List.of(10, 100, 1000)) {
+            for (String kind : List.of("dense", "sparse", "mixed")) {
+                TensorType type = matrixType(kind, size);
+                Tensor a = randomTensor(type, size);
+                Tensor b = randomTensor(type, size);
+                Tensor vector = randomTensor(vectorType(kind), 1);
+                byte[] encoded = TypedBinaryFormat.encode(a);
+
+                benchmark("join", kind, a, () -> a.join(b, (x, y) -> x * y).size());
+                benchmark("reduce", kind, a, () -> a.reduce(Reduce.Aggregator.sum, "y").size());
+                benchmark("map", kind, a, () -> a.map(x -> x * 2).size());
+                benchmark("rename", kind, a, () -> a.rename("x", "z").size());
+                benchmark("matmul", kind, a, () -> a.matmul(vector, "y").size());
+                benchmark("encode", kind, a, () -> TypedBinaryFormat.encode(a).length);
+                benchmark("decode", kind, a, () -> TypedBinaryFormat.decode(Optional.of(type), GrowableByteBuffer.wrap(encoded)).size());
+            }
+        }
+    }
+
+    /** Benchmarks the given operation on the given argument tensor and prints the result */
+    private void benchmark(String operation, String kind, Tensor argument, LongSupplier function) {
+        benchmark.run(operation + ", " + kind + ", " + argument.size(), function);
+    }
+
+    private static TensorType matrixType(String kind, int size) {
+        switch (kind) {
+            case "dense": return new TensorType.Builder().indexed("x", size).indexed("y", innerSize).build();
+            case "sparse": return new TensorType.Builder().mapped("x").mapped("y").build();
+            case "mixed": return new TensorType.Builder().mapped("x").indexed("y", innerSize).build();
+            default: throw new IllegalArgumentException("Unknown tensor kind " + kind);
+        }
+    }
+
+    private static TensorType vectorType(String kind) {
+        if (kind.equals("sparse"))
+            return new TensorType.Builder().mapped("y").build();
+        return new TensorType.Builder().indexed("y", innerSize).build();
+    }
+
+    private static Tensor randomTensor(TensorType type, int size) {
+        Tensor.Builder builder = Tensor.Builder.of(type);
+        boolean hasX = type.dimension("x").isPresent();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < innerSize; j++) {
+                Tensor.Builder.CellBuilder cell = builder.cell();
+                if (hasX)
+                    cell.label("x", String.valueOf(i));
+                cell.label("y", String.valueOf(j)).value(random.nextDouble());
+            }
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) {
+        new TensorOperationsBenchmark(MicroBenchmark.fromArguments(args)).run();
+    }
+
+}